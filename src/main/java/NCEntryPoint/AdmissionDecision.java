@@ -0,0 +1,59 @@
+import java.util.List;
+
+/**
+ * Result of an admission check, see {@link AnalysisSession#checkAdmission(SGService)}: if a candidate SGS can be
+ * added to the network without tearing a deadline, and otherwise which SGSs would miss their deadline.
+ * <p>
+ * The check stops at the first violation, so the violating SGSs are not necessarily complete. Decisions are immutable.
+ */
+public class AdmissionDecision {
+    private final String candidate;
+    private final boolean accepted;
+    private final List<String> violatingServices;
+    private final int noInterferingServices;
+    private final int noAnalyzedServices;
+
+    /**
+     * @param candidate             name of the checked SGS
+     * @param violatingServices     names of the SGSs found missing their deadline (or without a delay bound), empty if
+     *                              the candidate is accepted
+     * @param noInterferingServices number of SGSs interfering with the candidate
+     * @param noAnalyzedServices    number of SGSs analyzed until the decision, including the candidate
+     */
+    public AdmissionDecision(String candidate, List<String> violatingServices, int noInterferingServices, int noAnalyzedServices) {
+        this.candidate = candidate;
+        this.accepted = violatingServices.isEmpty();
+        this.violatingServices = List.copyOf(violatingServices);
+        this.noInterferingServices = noInterferingServices;
+        this.noAnalyzedServices = noAnalyzedServices;
+    }
+
+    public String getCandidate() {
+        return candidate;
+    }
+
+    public boolean isAccepted() {
+        return accepted;
+    }
+
+    /**
+     * @return names of the SGSs which would miss their deadline, empty if the candidate is accepted
+     */
+    public String[] getViolatingServices() {
+        return violatingServices.toArray(new String[0]);
+    }
+
+    public int getNoInterferingServices() {
+        return noInterferingServices;
+    }
+
+    public int getNoAnalyzedServices() {
+        return noAnalyzedServices;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Admission of %s %s (%d/%d SGSs analyzed)%s", candidate, accepted ? "accepted" : "rejected",
+                noAnalyzedServices, noInterferingServices + 1, accepted ? "" : ", deadlines torn: " + violatingServices);
+    }
+}
@@ -0,0 +1,206 @@
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Consumer;
+
+/**
+ * Long-running analysis (e.g. {@link NCEntryPoint#calculateNCDelaysResult()}) executed in the background by a
+ * {@link JobManager}. The state, the progress in flows and the results of finished sessions (e.g. combinations of an
+ * experiment) can be polled while the job is running, {@link #waitFor(long)} blocks for a limited time only.
+ * All methods are thread-safe.
+ */
+public class AnalysisJob {
+    /**
+     * Life cycle of a job.
+     */
+    public enum State {
+        QUEUED, RUNNING, DONE, FAILED, CANCELLED
+    }
+
+    private final String id;
+    private final String type;
+    private final AnalysisProgress progress = new AnalysisProgress();
+    private final List<AnalysisResult> partialResults = new ArrayList<>();
+    private final CompletableFuture<Object> result = new CompletableFuture<>();
+    private final Consumer<AnalysisJob> canceller;
+    private volatile State state = State.QUEUED;
+
+    /**
+     * @param id        id of the job
+     * @param type      description of the job, e.g. "analysis"
+     * @param canceller cancels the running job, e.g. by {@link NCEntryPoint#cancelAnalysis()}
+     */
+    AnalysisJob(String id, String type, Consumer<AnalysisJob> canceller) {
+        this.id = id;
+        this.type = type;
+        this.canceller = canceller;
+    }
+
+    /**
+     * Execute the task of the job in the calling thread, unless the job was cancelled while queued.
+     *
+     * @param task task of the job, returning its result
+     */
+    void run(Callable<Object> task) {
+        synchronized (this) {
+            if (state != State.QUEUED) {
+                return;
+            }
+            state = State.RUNNING;
+        }
+        try {
+            Object value = task.call();
+            synchronized (this) {
+                if (state == State.RUNNING) {
+                    state = State.DONE;
+                }
+            }
+            result.complete(value);
+        } catch (Throwable e) {
+            synchronized (this) {
+                if (state == State.RUNNING) {
+                    state = State.FAILED;
+                }
+            }
+            result.completeExceptionally(e);
+        }
+    }
+
+    /**
+     * @param partialResult result of a finished session of the job
+     */
+    synchronized void addPartialResult(AnalysisResult partialResult) {
+        partialResults.add(partialResult);
+    }
+
+    public String getId() {
+        return id;
+    }
+
+    public String getType() {
+        return type;
+    }
+
+    /**
+     * @return name of the current {@link State}
+     */
+    public String getState() {
+        return state.name();
+    }
+
+    boolean isCancelled() {
+        return state == State.CANCELLED;
+    }
+
+    public boolean isFinished() {
+        return result.isDone();
+    }
+
+    public AnalysisProgress getProgress() {
+        return progress;
+    }
+
+    /**
+     * @return number of finished flows
+     */
+    public long getFinishedFlows() {
+        return progress.getFinishedFlows();
+    }
+
+    /**
+     * @return number of flows scheduled so far, grows while the job proceeds
+     */
+    public long getTotalFlows() {
+        return progress.getTotalFlows();
+    }
+
+    /**
+     * @return results of the sessions finished so far, e.g. the combinations of an experiment
+     */
+    public synchronized List<AnalysisResult> getPartialResults() {
+        return new ArrayList<>(partialResults);
+    }
+
+    /**
+     * Wait for the job to finish.
+     *
+     * @param timeout maximum waiting time [ms]
+     * @return true if the job is finished
+     */
+    public boolean waitFor(long timeout) {
+        try {
+            result.get(timeout, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            return false;
+        } catch (ExecutionException | CancellationException e) {
+            // Finished without result
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * @return result of the finished job, e.g. an {@link AnalysisResult}, null for jobs without result
+     * @throws IllegalStateException if the job is not finished yet
+     * @throws RuntimeException      if the job failed or was cancelled
+     */
+    public Object getResult() {
+        if (!result.isDone()) {
+            throw new IllegalStateException("Job " + id + " is not finished yet.");
+        }
+        try {
+            return result.get();
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @return message of the error of a failed job, null otherwise
+     */
+    public String getError() {
+        if (!result.isCompletedExceptionally()) {
+            return null;
+        }
+        try {
+            result.get();
+        } catch (ExecutionException e) {
+            return String.valueOf(e.getCause());
+        } catch (CancellationException | InterruptedException e) {
+            return String.valueOf(e);
+        }
+        return null;
+    }
+
+    /**
+     * Cancel the job. A queued job is not started anymore, a running one is cancelled like
+     * {@link NCEntryPoint#cancelAnalysis()}.
+     */
+    public void cancel() {
+        boolean running;
+        synchronized (this) {
+            if (result.isDone() || state == State.CANCELLED) {
+                return;
+            }
+            running = state == State.RUNNING;
+            state = State.CANCELLED;
+        }
+        if (running) {
+            canceller.accept(this);
+        } else {
+            // A queued job is not removed from the executor, run() returns immediately instead and the JobManager
+            // proceeds with the next job
+            result.cancel(false);
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Job %s (%s): %s, %d/%d flows", id, type, state, getFinishedFlows(), getTotalFlows());
+    }
+}
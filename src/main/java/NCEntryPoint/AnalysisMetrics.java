@@ -0,0 +1,162 @@
+import org.networkcalculus.dnc.network.server_graph.ServerGraph;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Collects timing and size metrics of the network construction and the NC analysis:
+ * <ul>
+ * <li> the accumulated wall time and the number of executions per phase (e.g. "addTurnsToSG")
+ * <li> a latency histogram of the per-flow analyses, per analysis type and scheduling policy
+ * <li> the number of servers, turns and flows of the last created network
+ * <li> the used heap after every analysis run
+ * </ul>
+ * The metrics are accumulated until {@link #reset()} is called, all methods are thread-safe. Sessions analyzed in
+ * parallel can share one instance.
+ */
+public class AnalysisMetrics {
+    private final Map<String, Phase> phases = new ConcurrentHashMap<>();
+    private final Map<String, Histogram> flowLatencies = new ConcurrentHashMap<>();
+    private volatile long servers = 0;
+    private volatile long turns = 0;
+    private volatile long flows = 0;
+    private final AtomicLong runs = new AtomicLong();
+    private volatile long lastRunHeap = 0;
+    private final AtomicLong maxRunHeap = new AtomicLong();
+
+    /**
+     * @param phase name of the phase
+     * @param nanos wall time of one execution of the phase [ns]
+     */
+    public void recordPhase(String phase, long nanos) {
+        phases.computeIfAbsent(phase, k -> new Phase()).record(nanos);
+    }
+
+    /**
+     * @param analysisKey analysis type and scheduling policy, e.g. "SFA-DRR"
+     * @param nanos       wall time of the analysis of one flow [ns]
+     */
+    public void recordFlowAnalysis(String analysisKey, long nanos) {
+        flowLatencies.computeIfAbsent(analysisKey, k -> new Histogram()).record(nanos);
+    }
+
+    /**
+     * Record the size of a created network.
+     *
+     * @param sg server graph of the network
+     */
+    public void recordNetwork(ServerGraph sg) {
+        servers = sg.getServers().size();
+        turns = sg.getTurns().size();
+        flows = sg.getFlows().size();
+    }
+
+    /**
+     * Record the end of an analysis run, including the currently used heap.
+     */
+    public void recordRun() {
+        Runtime runtime = Runtime.getRuntime();
+        long heap = runtime.totalMemory() - runtime.freeMemory();
+        runs.incrementAndGet();
+        lastRunHeap = heap;
+        maxRunHeap.accumulateAndGet(heap, Math::max);
+    }
+
+    /**
+     * Discard all collected metrics.
+     */
+    public void reset() {
+        phases.clear();
+        flowLatencies.clear();
+        servers = turns = flows = 0;
+        runs.set(0);
+        lastRunHeap = 0;
+        maxRunHeap.set(0);
+    }
+
+    /**
+     * Snapshot of all metrics as flat name-value pairs, e.g. "phase.addTurnsToSG.totalMs" or
+     * "flowLatency.SFA-DRR.p99Ms". The histogram buckets are given as "flowLatency.[key].bucketLeUs.[upper bound]",
+     * only non-empty buckets are included.
+     *
+     * @return the metrics, sorted by name
+     */
+    public Map<String, Double> snapshot() {
+        Map<String, Double> snapshot = new TreeMap<>();
+        phases.forEach((name, phase) -> phase.writeInto(snapshot, "phase." + name));
+        flowLatencies.forEach((key, histogram) -> histogram.writeInto(snapshot, "flowLatency." + key));
+        snapshot.put("network.servers", (double) servers);
+        snapshot.put("network.turns", (double) turns);
+        snapshot.put("network.flows", (double) flows);
+        snapshot.put("runs", (double) runs.get());
+        snapshot.put("heap.lastRunMB", lastRunHeap / 1E6);
+        snapshot.put("heap.maxRunMB", maxRunHeap.get() / 1E6);
+        return snapshot;
+    }
+
+    private static class Phase {
+        private long count = 0;
+        private long totalNanos = 0;
+
+        synchronized void record(long nanos) {
+            count++;
+            totalNanos += nanos;
+        }
+
+        synchronized void writeInto(Map<String, Double> snapshot, String prefix) {
+            snapshot.put(prefix + ".count", (double) count);
+            snapshot.put(prefix + ".totalMs", totalNanos / 1E6);
+        }
+    }
+
+    /**
+     * Histogram with exponential buckets, bucket i contains the values up to 2^i us.
+     */
+    private static class Histogram {
+        private static final int BUCKETS = 40;
+        private final long[] buckets = new long[BUCKETS];
+        private long count = 0;
+        private long totalNanos = 0;
+        private long maxNanos = 0;
+
+        synchronized void record(long nanos) {
+            long micros = Math.max(1, (nanos + 999) / 1000);
+            int bucket = Math.min(BUCKETS - 1, 64 - Long.numberOfLeadingZeros(micros - 1));
+            buckets[bucket]++;
+            count++;
+            totalNanos += nanos;
+            maxNanos = Math.max(maxNanos, nanos);
+        }
+
+        /**
+         * @param quantile quantile between 0 and 1
+         * @return upper bound of the bucket containing the quantile [ms]
+         */
+        private double quantile(double quantile) {
+            long rank = (long) Math.ceil(quantile * count);
+            long cumulated = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                cumulated += buckets[i];
+                if (cumulated >= rank) {
+                    return Math.min((1L << i) / 1E3, maxNanos / 1E6);
+                }
+            }
+            return maxNanos / 1E6;
+        }
+
+        synchronized void writeInto(Map<String, Double> snapshot, String prefix) {
+            snapshot.put(prefix + ".count", (double) count);
+            snapshot.put(prefix + ".meanMs", count == 0 ? 0 : totalNanos / 1E6 / count);
+            snapshot.put(prefix + ".p50Ms", quantile(0.5));
+            snapshot.put(prefix + ".p90Ms", quantile(0.9));
+            snapshot.put(prefix + ".p99Ms", quantile(0.99));
+            snapshot.put(prefix + ".maxMs", maxNanos / 1E6);
+            for (int i = 0; i < BUCKETS; i++) {
+                if (buckets[i] > 0) {
+                    snapshot.put(prefix + ".bucketLeUs." + (1L << i), (double) buckets[i]);
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,32 @@
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe counter of the flows scheduled for analysis and of the finished ones (with or without a delay bound).
+ * The total grows while the analysis proceeds, e.g. per SGS in feasibility mode or per session of an experiment.
+ */
+public class AnalysisProgress {
+    private final AtomicLong totalFlows = new AtomicLong();
+    private final AtomicLong finishedFlows = new AtomicLong();
+
+    /**
+     * @param flows number of flows scheduled for analysis
+     */
+    public void addTotal(long flows) {
+        totalFlows.addAndGet(flows);
+    }
+
+    /**
+     * @param flows number of flows finished
+     */
+    public void addFinished(long flows) {
+        finishedFlows.addAndGet(flows);
+    }
+
+    public long getTotalFlows() {
+        return totalFlows.get();
+    }
+
+    public long getFinishedFlows() {
+        return finishedFlows.get();
+    }
+}
@@ -0,0 +1,319 @@
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.util.*;
+
+/**
+ * Result of one NC analysis run: the configuration used, the delay bounds per SGS and per flow and the deadline slack.
+ * All delays are given in [ms], a flow delay of -1 marks a failed analysis. The reason of a failure is given by
+ * {@link #getFailureReasons()}. The maximum delay and the slack of an SGS are only given if all its flows have a
+ * delay bound, they are NaN for SGSs with a failed, timed out or cancelled flow and for SGSs which were not analyzed
+ * (e.g. skipped by the feasibility mode).
+ * <p>
+ * The per-flow delays of all SGSs are stored in one array, the flows of SGS {@code i} are found at the indices
+ * {@code flowOffsets[i]} (inclusive) to {@code flowOffsets[i + 1]} (exclusive). The packed getters return the arrays
+ * as little-endian byte arrays, which are transferred via Py4J in one piece and can be read with e.g.
+ * {@code numpy.frombuffer(result.getFlowDelaysPacked(), dtype='<f8')}.
+ * <p>
+ * Results are immutable, the array getters return copies.
+ */
+public class AnalysisResult {
+    private final List<String> configNames;
+    private final List<String> configValues;
+    private final String[] serviceNames;
+    private final FlowPriority[] priorities;
+    private final double[] deadlines;
+    private final double[] maxDelays;
+    private final int[] flowOffsets;
+    private final double[] flowDelays;
+    private final FlowFailure[] flowFailures;
+    private final boolean[] analyzed;
+    private final boolean delayTorn;
+
+    /**
+     * Collect the result of an analysis run.
+     *
+     * @param experimentConfig configuration used for the analysis
+     * @param sgServices       analyzed SGSs
+     * @param perf_results     flow delays [ms] per SGS name
+     * @param delayTorn        if one of the delay constraints is torn
+     */
+    public AnalysisResult(ExperimentConfig experimentConfig, List<SGService> sgServices, Map<String, List<Double>> perf_results, boolean delayTorn) {
+        this(experimentConfig, sgServices, perf_results, Collections.emptyMap(), delayTorn);
+    }
+
+    /**
+     * Collect the result of an analysis run, including the reasons of failed flow analyses.
+     *
+     * @param experimentConfig configuration used for the analysis
+     * @param sgServices       analyzed SGSs
+     * @param perf_results     flow delays [ms] per SGS name
+     * @param failures         failure reason per flow (null for successful analyses) per SGS name, in the order of
+     *                         the flow delays. SGSs without failures can be omitted.
+     * @param delayTorn        if one of the delay constraints is torn
+     */
+    public AnalysisResult(ExperimentConfig experimentConfig, List<SGService> sgServices, Map<String, List<Double>> perf_results,
+                          Map<String, List<FlowFailure>> failures, boolean delayTorn) {
+        this.configNames = Collections.unmodifiableList(experimentConfig.getConfigNames());
+        List<String> values = new ArrayList<>();
+        experimentConfig.writeConfiginBuffer(values);
+        this.configValues = Collections.unmodifiableList(values);
+        this.delayTorn = delayTorn;
+
+        int noServices = sgServices.size();
+        serviceNames = new String[noServices];
+        priorities = new FlowPriority[noServices];
+        deadlines = new double[noServices];
+        maxDelays = new double[noServices];
+        flowOffsets = new int[noServices + 1];
+        analyzed = new boolean[noServices];
+        List<Double> allDelays = new ArrayList<>();
+        List<FlowFailure> allFailures = new ArrayList<>();
+        for (int i = 0; i < noServices; i++) {
+            SGService sgs = sgServices.get(i);
+            serviceNames[i] = sgs.getName();
+            priorities[i] = sgs.getPriority();
+            deadlines[i] = sgs.getDeadline() * 1000;    // Convert s to ms
+            flowOffsets[i] = allDelays.size();
+            analyzed[i] = perf_results.containsKey(sgs.getName());
+            // Without a bound for every flow, the SGS has no bound
+            double maxDelay = analyzed[i] ? 0 : Double.NaN;
+            List<FlowFailure> serviceFailures = failures.get(sgs.getName());
+            int flowIdx = 0;
+            for (double flowDelay : perf_results.getOrDefault(sgs.getName(), Collections.emptyList())) {
+                FlowFailure failure = serviceFailures == null ? null : serviceFailures.get(flowIdx);
+                allDelays.add(flowDelay);
+                allFailures.add(failure);
+                maxDelay = failure != null || flowDelay < 0 ? Double.NaN : Math.max(flowDelay, maxDelay);
+                flowIdx++;
+            }
+            maxDelays[i] = maxDelay;
+        }
+        flowOffsets[noServices] = allDelays.size();
+        flowDelays = allDelays.stream().mapToDouble(Double::doubleValue).toArray();
+        flowFailures = allFailures.toArray(new FlowFailure[0]);
+    }
+
+    /**
+     * @return if one of the delay constraints is torn
+     */
+    public boolean isDelayTorn() {
+        return delayTorn;
+    }
+
+    /**
+     * @return names of the configuration parameters, see {@link ExperimentConfig#getConfigNames()}
+     */
+    public List<String> getConfigNames() {
+        return configNames;
+    }
+
+    /**
+     * @return values of the configuration parameters used for the analysis, in the order of {@link #getConfigNames()}
+     */
+    public List<String> getConfigValues() {
+        return configValues;
+    }
+
+    public int getNumberOfServices() {
+        return serviceNames.length;
+    }
+
+    public int getNumberOfFlows() {
+        return flowDelays.length;
+    }
+
+    public String[] getServiceNames() {
+        return serviceNames.clone();
+    }
+
+    /**
+     * @return all SGS names separated by a line break, for transferring them via Py4J within one call.
+     */
+    public String getServiceNamesJoined() {
+        return String.join("\n", serviceNames);
+    }
+
+    public FlowPriority[] getPriorities() {
+        return priorities.clone();
+    }
+
+    /**
+     * @return deadline per SGS [ms]
+     */
+    public double[] getDeadlines() {
+        return deadlines.clone();
+    }
+
+    /**
+     * @return maximum flow delay bound per SGS [ms], NaN for SGSs with a flow without delay bound or which were not
+     * analyzed
+     */
+    public double[] getMaxDelays() {
+        return maxDelays.clone();
+    }
+
+    /**
+     * @return deadline slack per SGS [ms], negative if the deadline is torn, NaN for SGSs without a maximum delay
+     * (see {@link #getMaxDelays()})
+     */
+    public double[] getSlacks() {
+        double[] slacks = new double[deadlines.length];
+        for (int i = 0; i < slacks.length; i++) {
+            slacks[i] = deadlines[i] - maxDelays[i];
+        }
+        return slacks;
+    }
+
+    /**
+     * @return minimal deadline slack over all SGSs [ms], negative infinity if an SGS has no maximum delay (see
+     * {@link #getMaxDelays()}), positive infinity if the result contains no SGS
+     */
+    public double getMinSlack() {
+        return Arrays.stream(getSlacks()).map(slack -> Double.isNaN(slack) ? Double.NEGATIVE_INFINITY : slack)
+                .min().orElse(Double.POSITIVE_INFINITY);
+    }
+
+    /**
+     * @return offsets of the SGSs into {@link #getFlowDelays()}, one more entry than the number of SGSs
+     */
+    public int[] getFlowOffsets() {
+        return flowOffsets.clone();
+    }
+
+    /**
+     * @return failure reason of every flow (see {@link FlowFailure}), in the order of {@link #getFlowDelays()}.
+     * null for successfully analyzed flows.
+     */
+    public String[] getFailureReasons() {
+        String[] reasons = new String[flowFailures.length];
+        for (int i = 0; i < reasons.length; i++) {
+            reasons[i] = flowFailures[i] == null ? null : flowFailures[i].name();
+        }
+        return reasons;
+    }
+
+    /**
+     * @return number of flows without a delay bound
+     */
+    public int getNumberOfFailedFlows() {
+        return (int) Arrays.stream(flowFailures).filter(Objects::nonNull).count();
+    }
+
+    /**
+     * @return false if the analysis of at least one flow was cancelled, exceeded its time budget or overflowed the
+     * stack. Such results depend on the circumstances of the run (e.g. {@link ExperimentConfig#analysisStackSize}) and
+     * are not reproducible.
+     */
+    public boolean isComplete() {
+        return Arrays.stream(flowFailures).noneMatch(failure -> failure == FlowFailure.CANCELLED
+                || failure == FlowFailure.TIMEOUT || failure == FlowFailure.STACK_OVERFLOW);
+    }
+
+    /**
+     * @return delay bounds of all flows [ms]
+     */
+    public double[] getFlowDelays() {
+        return flowDelays.clone();
+    }
+
+    /**
+     * @param serviceName name of the SGS
+     * @return delay bounds of the flows of the SGS [ms], null if the SGS is not part of the result
+     */
+    public double[] getFlowDelays(String serviceName) {
+        for (int i = 0; i < serviceNames.length; i++) {
+            if (serviceNames[i].equals(serviceName)) {
+                return Arrays.copyOfRange(flowDelays, flowOffsets[i], flowOffsets[i + 1]);
+            }
+        }
+        return null;
+    }
+
+    /**
+     * @return {@link #getFlowDelays()} as little-endian doubles
+     */
+    public byte[] getFlowDelaysPacked() {
+        return pack(flowDelays);
+    }
+
+    /**
+     * @return {@link #getFlowOffsets()} as little-endian 32 bit integers
+     */
+    public byte[] getFlowOffsetsPacked() {
+        ByteBuffer buffer = ByteBuffer.allocate(flowOffsets.length * Integer.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asIntBuffer().put(flowOffsets);
+        return buffer.array();
+    }
+
+    /**
+     * @return per SGS the deadline, the maximum delay and the slack [ms] as little-endian doubles,
+     * flattened row by row. The maximum delay and the slack are NaN for SGSs without bound, see {@link #getMaxDelays()}.
+     */
+    public byte[] getServiceBoundsPacked() {
+        double[] slacks = getSlacks();
+        double[] bounds = new double[serviceNames.length * 3];
+        for (int i = 0; i < serviceNames.length; i++) {
+            bounds[3 * i] = deadlines[i];
+            bounds[3 * i + 1] = maxDelays[i];
+            bounds[3 * i + 2] = slacks[i];
+        }
+        return pack(bounds);
+    }
+
+    /**
+     * Write the result as one experiment log row: the configuration, the SGS priorities and the flow delays of every
+     * SGS, sorted by the SGS name.
+     *
+     * @param experimentLog List to add the output results into. Intended for CSV usage.
+     */
+    public void writeResultInBuffer(List<String> experimentLog) {
+        experimentLog.addAll(configValues);
+
+        // Add the priorities of the different SGS
+        StringBuilder prios = new StringBuilder();
+        String prefix = "";
+        for (int i = 0; i < serviceNames.length; i++) {
+            prios.append(prefix);
+            prios.append(serviceNames[i]);
+            prios.append(":");
+            prios.append(priorities[i]);
+            prefix = " - ";
+        }
+        experimentLog.add(prios.toString());
+
+        // SGS names are unique in the log, a later SGS with the same name replaces the earlier one
+        Map<String, Integer> serviceIdx = new TreeMap<>();
+        for (int i = 0; i < serviceNames.length; i++) {
+            if (analyzed[i]) {
+                serviceIdx.put(serviceNames[i], i);
+            }
+        }
+        for (Map.Entry<String, Integer> entry : serviceIdx.entrySet()) {
+            experimentLog.add(entry.getKey());
+            int i = entry.getValue();
+            for (int flowIdx = flowOffsets[i]; flowIdx < flowOffsets[i + 1]; flowIdx++) {
+                experimentLog.add(String.format("%.3f", flowDelays[flowIdx]));
+            }
+        }
+    }
+
+    /**
+     * @return rough estimate of the memory occupied by this result [Byte]
+     */
+    public long estimateSize() {
+        long size = 256L + flowDelays.length * 12L + flowOffsets.length * 4L;
+        for (String name : serviceNames) {
+            size += 64L + 2L * name.length();
+        }
+        for (String value : configValues) {
+            size += 48L + 2L * value.length();
+        }
+        return size;
+    }
+
+    private static byte[] pack(double[] values) {
+        ByteBuffer buffer = ByteBuffer.allocate(values.length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asDoubleBuffer().put(values);
+        return buffer.array();
+    }
+}
@@ -0,0 +1,1506 @@
+import org.networkcalculus.dnc.AnalysisConfig;
+import org.networkcalculus.dnc.curves.ArrivalCurve;
+import org.networkcalculus.dnc.curves.Curve;
+import org.networkcalculus.dnc.curves.ServiceCurve;
+import org.networkcalculus.dnc.network.server_graph.Flow;
+import org.networkcalculus.dnc.network.server_graph.Server;
+import org.networkcalculus.dnc.network.server_graph.ServerGraph;
+import org.networkcalculus.dnc.tandem.TandemAnalysis;
+import org.networkcalculus.dnc.tandem.analyses.TandemMatchingAnalysis;
+
+import java.util.*;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Self-contained analysis session: one experiment configuration, one ServerGraph and the bindings of the
+ * edges to their NC servers and of the SGSs to their flows.
+ * <p>
+ * The session keeps its own copies of the edge and SGS lists, the definitions themselves are only read. Therefore,
+ * multiple sessions can be built from the same definitions and analyzed concurrently, e.g. for evaluating different
+ * configurations in parallel, and later changes of the caller's lists don't affect a built session. Only
+ * {@link #addService(SGService)} and {@link #removeService(SGService)} change the SGSs of a session.
+ */
+public class AnalysisSession {
+    private static final AtomicLong flowThreadCounter = new AtomicLong();
+
+    private final List<Edge> edgeList;
+    // Own copy of the SGS list, only changed by addService and removeService
+    private final TopologyIndex topology;
+    private final ServiceCurveCache curveCache;
+    private final ExperimentConfig experimentConfig;
+    private List<SGService> sgServices;
+    private final Map<Edge, List<Server>> edgeServers = new HashMap<>();
+    private final Map<SGService, List<Flow>> serviceFlows = new HashMap<>();
+    // SP only: copies of the flows on the servers of the lower priorities, see addLayerFlowsToSG
+    private final Map<SGService, List<Flow>> layerFlows = new HashMap<>();
+    // Flow aggregation: macro-flows per priority and server path
+    private final Map<MacroKey, MacroFlow> macroFlows = new LinkedHashMap<>();
+    private ServerGraph serverGraph;
+    private InterferenceIndex interference;
+    // Incremental analysis: flow delays [ms] of the last analysis per SGS and the SGSs whose delays are outdated
+    private final Map<SGService, List<Double>> boundCache = new HashMap<>();
+    private final Map<SGService, List<FlowFailure>> failureCache = new HashMap<>();
+    private final Set<SGService> staleServices = new LinkedHashSet<>();
+    private final Set<SGService> tornServices = new HashSet<>();
+    private final AnalysisMetrics metrics;
+    private volatile boolean cancelled = false;
+    private AnalysisProgress progress = new AnalysisProgress();
+    // Paths (by index) per SGS which depend on a cyclic dependency and the description of the cycles
+    private final Map<SGService, Set<Integer>> cyclicPaths = new HashMap<>();
+    // Turns created from the flow paths, for skipping duplicates
+    private final Set<List<Server>> pathTurns = new HashSet<>();
+    private String cycleReport = null;
+    // Bitrates [Byte/s] replacing the ones of the edge definitions, e.g. for dimensioning
+    private Map<Edge, Double> bitrateOverrides = Collections.emptyMap();
+    // Feasibility mode: the analysis stops at the first SGS with less deadline slack [ms]
+    private double requiredSlack = 0;
+    // Worker threads of the flow analyses and the analyses abandoned after their time budget or a cancellation, which
+    // still read the server graph
+    private ThreadPoolExecutor flowExecutor;
+    private long flowStackSize;
+    private final Set<FlowTask> abandonedTasks = ConcurrentHashMap.newKeySet();
+
+    /**
+     * Create a new session. Call {@link #createNCNetwork()} afterwards to build the server graph.
+     *
+     * @param edgeList         edge definitions of the network (the list is copied)
+     * @param topology         index of the edge definitions (only read)
+     * @param curveCache       cache providing the service curves of the servers, can be shared among sessions
+     * @param sgServices       SGS definitions using the network (the list is copied)
+     * @param experimentConfig configuration of this session, has to be exclusive to this session
+     *                         (see {@link ExperimentConfig#copy()})
+     */
+    public AnalysisSession(List<Edge> edgeList, TopologyIndex topology, ServiceCurveCache curveCache, List<SGService> sgServices, ExperimentConfig experimentConfig) {
+        this(edgeList, topology, curveCache, sgServices, experimentConfig, new AnalysisMetrics());
+    }
+
+    /**
+     * Create a new session recording its metrics into a given collector.
+     * For the other parameters see {@link #AnalysisSession(List, TopologyIndex, ServiceCurveCache, List, ExperimentConfig)}
+     *
+     * @param metrics collector of the phase timings and network sizes, can be shared among sessions
+     */
+    public AnalysisSession(List<Edge> edgeList, TopologyIndex topology, ServiceCurveCache curveCache, List<SGService> sgServices, ExperimentConfig experimentConfig, AnalysisMetrics metrics) {
+        this.edgeList = List.copyOf(edgeList);
+        this.topology = topology;
+        this.curveCache = curveCache;
+        this.sgServices = new ArrayList<>(sgServices);
+        this.experimentConfig = experimentConfig;
+        this.metrics = metrics;
+    }
+
+    public AnalysisMetrics getMetrics() {
+        return metrics;
+    }
+
+    public ExperimentConfig getExperimentConfig() {
+        return experimentConfig;
+    }
+
+    public ServerGraph getServerGraph() {
+        return serverGraph;
+    }
+
+    /**
+     * @return the edges this session was created with (read-only)
+     */
+    public List<Edge> getEdgeList() {
+        return edgeList;
+    }
+
+    /**
+     * @return the SGSs of this session, including incremental changes (read-only)
+     */
+    public List<SGService> getSGServices() {
+        return Collections.unmodifiableList(sgServices);
+    }
+
+    /**
+     * Replace the bitrates of some edges for this session, without modifying the edge definitions. Takes effect with
+     * the next {@link #createNCNetwork()}.
+     *
+     * @param bitrateOverrides bitrate [Byte/s] per edge, edges without an entry keep their own bitrate
+     */
+    public void setBitrateOverrides(Map<Edge, Double> bitrateOverrides) {
+        this.bitrateOverrides = Map.copyOf(bitrateOverrides);
+    }
+
+    /**
+     * @param progress counter the analyzed flows are reported to, can be shared among sessions
+     */
+    public void setProgress(AnalysisProgress progress) {
+        this.progress = progress;
+    }
+
+    /**
+     * Set the deadline slack at which the feasibility mode (see {@link ExperimentConfig#feasibilityOnly}) stops. By
+     * default, it stops at the first torn deadline (slack 0). A higher value stops earlier, e.g. for discarding
+     * configurations which can't beat a known slack, negative infinity analyzes all SGSs.
+     *
+     * @param requiredSlack slack [ms]
+     */
+    public void setRequiredSlack(double requiredSlack) {
+        this.requiredSlack = requiredSlack;
+    }
+
+    /**
+     * @param edge edge of interest
+     * @return the bitrate [Byte/s] of the edge in this session
+     */
+    public double getBitrate(Edge edge) {
+        return bitrateOverrides.getOrDefault(edge, edge.getBitrate());
+    }
+
+    /**
+     * Get the NC server of an edge for a specific priority
+     *
+     * @param edge edge of which the server shall be returned
+     * @param prio priority of the server
+     * @return the NC server of this session
+     */
+    public Server getServer(Edge edge, FlowPriority prio) {
+        return edgeServers.get(edge).get(prio.ordinal());
+    }
+
+    /**
+     * Get all flows which were created in this session for a SGS, one per path. With flow aggregation, the flows
+     * are macro-flows shared with other SGSs.
+     *
+     * @param service SGS of which the flows shall be returned
+     * @return list of flows, empty if none are present
+     */
+    public List<Flow> getFlows(SGService service) {
+        return serviceFlows.getOrDefault(service, Collections.emptyList());
+    }
+
+    /**
+     * This function creates the final ServerGraph aka combines all the network elements in one network.
+     */
+    public void createNCNetwork() {
+        createServers();
+        // Add the turns (connections) between the edges to the network
+        createTurns();
+        // Add all flows to the network
+        createFlows();
+        // Fail fast on cyclic dependencies
+        checkCycles();
+    }
+
+    /**
+     * First phase of {@link #createNCNetwork()}: create a new ServerGraph containing one server per edge and priority.
+     */
+    void createServers() {
+        long start = System.nanoTime();
+        long curveNanos = 0;
+        // Create ServerGraph - aka network
+        ServerGraph sg = new ServerGraph();
+        edgeServers.clear();
+        serviceFlows.clear();
+        layerFlows.clear();
+        macroFlows.clear();
+        pathTurns.clear();
+        boundCache.clear();
+        failureCache.clear();
+        staleServices.clear();
+        tornServices.clear();
+
+        // Add every edge as a server to the network
+        for (Edge edge : edgeList) {
+            List<String> edgeNodes = edge.getNodes();
+            // When a field device is involved, only a simple service curve shall be created instead of a scheduling one.
+            // Otherwise, the service curve is created according to the current configuration settings
+            boolean simple = edgeNodes.get(0).contains("F") || edgeNodes.get(1).contains("F");
+            long curveStart = System.nanoTime();
+            List<ServiceCurve> service_curves = curveCache.getServiceCurves(getBitrate(edge), edge.getLatency(),
+                    experimentConfig, FlowPriority.values().length, simple);
+            curveNanos += System.nanoTime() - curveStart;
+            // Add server (edge) with service curve to network
+            // (Important: Every "Edge"/"Server" in this Java code is unidirectional - not bidirectional!)
+            // --> For two-way /bidirectional but independent communication (e.g. switched Ethernet) use the "addEdge"
+            // function twice with a switched order of nodes.
+            List<Server> prio_servers = new ArrayList<>(FlowPriority.values().length);
+            for (int i = 0; i < FlowPriority.values().length; i++) {
+                FlowPriority prio = FlowPriority.values()[i];
+                String servername = String.join(",", edge.getNodes()) + prio;
+                // IMPORTANT: The servers have to be added in ascending priority order (HIGH before MEDIUM or LOW)!
+                prio_servers.add(sg.addServer(servername, service_curves.get(i), experimentConfig.multiplexing));
+            }
+            // Bind the servers to the edge for future references
+            edgeServers.put(edge, prio_servers);
+        }
+        this.serverGraph = sg;
+        metrics.recordPhase("serviceCurves", curveNanos);
+        metrics.recordPhase("createServers", System.nanoTime() - start);
+    }
+
+    /**
+     * Second phase of {@link #createNCNetwork()}: connect the servers of the ServerGraph by turns.
+     */
+    void createTurns() {
+        long start = System.nanoTime();
+        if (experimentConfig.turnGeneration == ExperimentConfig.TurnGeneration.FLOW_PATHS) {
+            sgServices.forEach(this::addPathTurnsToSG);
+        } else {
+            addTurnsToSG(serverGraph);
+        }
+        metrics.recordPhase("addTurnsToSG", System.nanoTime() - start);
+    }
+
+    /**
+     * Third phase of {@link #createNCNetwork()}: add the flows of all SGSs to the ServerGraph.
+     */
+    void createFlows() {
+        long start = System.nanoTime();
+        addFlowsToSG(serverGraph, sgServices, -1, getFixedPriority());
+        addLayerFlowsToSG(sgServices);
+        metrics.recordPhase("addFlowsToSG", System.nanoTime() - start);
+        metrics.recordNetwork(serverGraph);
+        EventLog.info("network", "%d Flows", serverGraph.getFlows().size());
+
+        // Track which SGSs interfere with each other
+        interference = new InterferenceIndex(topology);
+        sgServices.forEach(interference::addService);
+    }
+
+    /**
+     * Fourth phase of {@link #createNCNetwork()}: search the dependencies of the flows for cycles, i.e. the turns
+     * taken by the flows. The turn graph itself is not checked, it is cyclic due to turns not used by any flow.
+     * <p>
+     * The found cycles and the flows involved in them are reported immediately. Flows traversing a cycle or a server
+     * downstream of one are not analyzed, they are recorded as {@link FlowFailure#CYCLIC_DEPENDENCY}.
+     * For SP, the flows of all priorities are checked together, as the lower priority layers contain the flows of
+     * the higher priorities.
+     */
+    void checkCycles() {
+        Map<String, Set<String>> dependencies = new HashMap<>();
+        for (SGService sgs : sgServices) {
+            for (List<String> path : sgs.getMultipath()) {
+                List<String> nodes = dependencyNodes(sgs, path);
+                for (int i = 1; i < nodes.size(); i++) {
+                    dependencies.computeIfAbsent(nodes.get(i - 1), k -> new LinkedHashSet<>()).add(nodes.get(i));
+                }
+            }
+        }
+        DependencyCycles cycles = new DependencyCycles(dependencies);
+        cyclicPaths.clear();
+        cycleReport = null;
+        if (!cycles.isCyclic()) {
+            return;
+        }
+
+        StringBuilder report = new StringBuilder();
+        for (Set<String> component : cycles.getCyclicComponents()) {
+            report.append("Cyclic dependency: ").append(String.join(" -> ", cycles.getCycle(component)));
+            report.append(System.lineSeparator()).append("  Involved flows:");
+            for (SGService sgs : sgServices) {
+                for (int pathIdx = 0; pathIdx < sgs.getMultipath().size(); pathIdx++) {
+                    List<String> nodes = dependencyNodes(sgs, sgs.getMultipath().get(pathIdx));
+                    for (int i = 1; i < nodes.size(); i++) {
+                        if (component.contains(nodes.get(i - 1)) && component.contains(nodes.get(i))) {
+                            report.append(' ').append(sgs.getName()).append('[').append(pathIdx).append(']');
+                            break;
+                        }
+                    }
+                }
+            }
+            report.append(System.lineSeparator());
+        }
+        int noCyclicFlows = 0;
+        for (SGService sgs : sgServices) {
+            for (int pathIdx = 0; pathIdx < sgs.getMultipath().size(); pathIdx++) {
+                if (dependencyNodes(sgs, sgs.getMultipath().get(pathIdx)).stream().anyMatch(cycles::isTainted)) {
+                    cyclicPaths.computeIfAbsent(sgs, k -> new HashSet<>()).add(pathIdx);
+                    noCyclicFlows++;
+                }
+            }
+        }
+        report.append(noCyclicFlows).append(" flows depend on a cyclic dependency and won't be analyzed.");
+        cycleReport = report.toString();
+        EventLog.warn("cycle", "%s", cycleReport);
+    }
+
+    /**
+     * @param sgs  SGS of the path
+     * @param path path of the SGS
+     * @return names of the servers along the path, as used for the cycle search
+     */
+    private List<String> dependencyNodes(SGService sgs, List<String> path) {
+        String suffix = "";
+        if (experimentConfig.schedulingPolicy != ExperimentConfig.SchedulingPolicy.SP) {
+            FlowPriority fixedPrio = getFixedPriority();
+            suffix = String.valueOf(fixedPrio == null ? sgs.getPriority() : fixedPrio);
+        }
+        List<String> nodes = new ArrayList<>();
+        for (Edge edge : topology.resolvePath(path)) {
+            nodes.add(String.join(",", edge.getNodes()) + suffix);
+        }
+        return nodes;
+    }
+
+    /**
+     * @return description of the cyclic dependencies found by the last network creation, null if there are none
+     */
+    public String getCycleReport() {
+        return cycleReport;
+    }
+
+    /**
+     * SP only: add copies of the flows of the given SGSs to the servers of every lower priority. The servers of one
+     * priority then carry the flows of this and of all higher priorities, which is the layer analyzed for this
+     * priority (see {@link #calculate_SP_Delays(Map, Map, AnalysisConfig, ExperimentConfig, List)}).
+     * The layers are built once and stay in the server graph for all analyses.
+     *
+     * @param services SGSs whose flows shall be copied
+     */
+    private void addLayerFlowsToSG(List<SGService> services) {
+        if (experimentConfig.schedulingPolicy != ExperimentConfig.SchedulingPolicy.SP) {
+            return;
+        }
+        for (FlowPriority layer : FlowPriority.values()) {
+            List<SGService> higherSGSs = services.stream().filter(sgs -> sgs.getPriority().ordinal() < layer.ordinal()).toList();
+            addFlowsToSG(serverGraph, higherSGSs, -1, layer, layerFlows);
+        }
+    }
+
+    /**
+     * @return the priority all flows shall be added to, null if the priority of the SGS shall be used
+     */
+    private FlowPriority getFixedPriority() {
+        if (experimentConfig.schedulingPolicy == ExperimentConfig.SchedulingPolicy.None){
+            return FlowPriority.values()[0];   // just take the first prio to add all flows to.
+        }
+        return null;
+    }
+
+    /**
+     * Add a new SGS to this session and its flows to the existing server graph. The new SGS and all SGSs interfering
+     * with it are re-analyzed by the next incremental analysis.
+     *
+     * @param service SGS to add
+     */
+    public void addService(SGService service) {
+        sgServices.add(service);
+        // Abandoned analyses still read the server graph, it must not be modified then
+        if (hasAbandonedTasks()) {
+            rebuildServerGraph();
+        } else {
+            interference.addService(service);
+            if (experimentConfig.turnGeneration == ExperimentConfig.TurnGeneration.FLOW_PATHS) {
+                addPathTurnsToSG(service);
+            }
+            addFlowsToSG(serverGraph, List.of(service), -1, getFixedPriority());
+            addLayerFlowsToSG(List.of(service));
+        }
+        staleServices.addAll(interference.getInterferenceSet(interference.getEdges(service)));
+        checkCycles();
+    }
+
+    /**
+     * Remove an SGS from this session and its flows from the existing server graph. All SGSs which interfered with it
+     * are re-analyzed by the next incremental analysis.
+     *
+     * @param service SGS to remove
+     */
+    public void removeService(SGService service) {
+        sgServices.remove(service);
+        Set<Edge> edges = interference.removeService(service);
+        // Abandoned analyses still read the server graph, it must not be modified then
+        if (hasAbandonedTasks()) {
+            rebuildServerGraph();
+        } else if (aggregatesFlows()) {
+            removeFromMacroFlows(service);
+        } else {
+            List<Flow> flows = new ArrayList<>(getFlows(service));
+            flows.addAll(layerFlows.getOrDefault(service, Collections.emptyList()));
+            for (Flow flow : flows) {
+                try {
+                    serverGraph.removeFlow(flow);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+        serviceFlows.remove(service);
+        layerFlows.remove(service);
+        boundCache.remove(service);
+        failureCache.remove(service);
+        staleServices.remove(service);
+        tornServices.remove(service);
+        staleServices.addAll(interference.getInterferenceSet(edges));
+        checkCycles();
+    }
+
+    /**
+     * Build a new server graph of the current SGSs instead of modifying the existing one, keeping the state of the
+     * incremental analysis. Used while abandoned analyses still read the existing graph.
+     */
+    private void rebuildServerGraph() {
+        Map<SGService, List<Double>> bounds = new HashMap<>(boundCache);
+        Map<SGService, List<FlowFailure>> flowFailures = new HashMap<>(failureCache);
+        Set<SGService> stale = new LinkedHashSet<>(staleServices);
+        Set<SGService> torn = new HashSet<>(tornServices);
+        createServers();
+        createTurns();
+        createFlows();
+        boundCache.putAll(bounds);
+        failureCache.putAll(flowFailures);
+        staleServices.addAll(stale);
+        tornServices.addAll(torn);
+    }
+
+    /**
+     * Helper function for adding the turn connections between the edges into a given SererGraph
+     *
+     * @param sg SerGraph to add all the connections to.
+     */
+    private void addTurnsToSG(ServerGraph sg) {
+        for (Edge currEdge : edgeList) {
+            for (Edge targetEdge : topology.getConnectingEdges(currEdge)) {
+                // We can just freely add one turn twice, duplicates get omitted by DiscoDNC
+                try {
+                    // Connect the NC servers according to their priorities --> No priority hoping possible!
+                    for (FlowPriority prio : FlowPriority.values()) {
+                        sg.addTurn(getServer(currEdge, prio), getServer(targetEdge, prio));
+                    }
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * Add the turns between the consecutive edges of all paths of an SGS, only for the priorities the flows of the
+     * SGS are added to (see {@link #getFlowPriorities(SGService)}).
+     *
+     * @param service SGS whose paths shall be connected
+     */
+    private void addPathTurnsToSG(SGService service) {
+        List<FlowPriority> prios = getFlowPriorities(service);
+        for (List<String> path : service.getMultipath()) {
+            List<Edge> edges = topology.resolvePath(path);
+            for (int i = 1; i < edges.size(); i++) {
+                for (FlowPriority prio : prios) {
+                    Server source = getServer(edges.get(i - 1), prio);
+                    Server dest = getServer(edges.get(i), prio);
+                    if (pathTurns.add(List.of(source, dest))) {
+                        try {
+                            serverGraph.addTurn(source, dest);
+                        } catch (Exception e) {
+                            throw new RuntimeException(e);
+                        }
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @param service SGS of interest
+     * @return all priorities whose servers carry flows of the SGS: the fixed priority without scheduling, the
+     * priority of the SGS and every lower one for SP (the lower priority layers contain the higher priority flows),
+     * else the priority of the SGS
+     */
+    private List<FlowPriority> getFlowPriorities(SGService service) {
+        FlowPriority fixedPrio = getFixedPriority();
+        if (fixedPrio != null) {
+            return List.of(fixedPrio);
+        }
+        if (experimentConfig.schedulingPolicy == ExperimentConfig.SchedulingPolicy.SP) {
+            List<FlowPriority> prios = Arrays.asList(FlowPriority.values());
+            return prios.subList(service.getPriority().ordinal(), prios.size());
+        }
+        return List.of(service.getPriority());
+    }
+
+    /**
+     * Calculate the performance bounds for every flow and export the result as CSV into the "calcs" folder.
+     * For details see {@link #calculateNCDelays(List)}
+     *
+     * @return boolean if one of the delay constraints is torn
+     */
+    public boolean calculateNCDelays() {
+        AnalysisResult result = calculateNCResult();
+        try (ResultSink sink = ResultSink.open(experimentConfig.resultFormat, "calcs", "bounding")) {
+            sink.write(result);
+        }
+        return result.isDelayTorn();
+    }
+
+    /**
+     * Function to calculate the performance bounds for every flow and output the result onto the Console and into a
+     * given experimentLog
+     *
+     * @param experimentLog List to add the output results into. Intended for CSV usage.
+     * @return boolean if one of the delay constraints is torn
+     */
+    public boolean calculateNCDelays(List<String> experimentLog) {
+        AnalysisResult result = calculateNCResult();
+        result.writeResultInBuffer(experimentLog);
+        return result.isDelayTorn();
+    }
+
+    /**
+     * Function to calculate the performance bounds for every flow and output the result onto the Console.
+     *
+     * @return the delay bounds of all SGSs and flows, together with the used configuration
+     */
+    public AnalysisResult calculateNCResult() {
+        long start = System.nanoTime();
+        // The AnalysisConfig can be used to modify different analysis parameters, e.g. the used arrival bounding method
+        // or to enforce Multiplexing strategies on the servers.
+        // Current work-around for the experiment run
+        AnalysisConfig configuration = createAnalysisConfig();
+        experimentConfig.outputConfig();
+
+        // In incremental mode only the SGSs affected by changes since the last analysis are analyzed again
+        boolean incremental = experimentConfig.incrementalAnalysis && !boundCache.isEmpty();
+        List<SGService> analyzedServices = sgServices;
+        if (incremental) {
+            analyzedServices = sgServices.stream().filter(staleServices::contains).toList();
+            EventLog.info("analysis", "Incremental analysis of %d/%d SGSs", analyzedServices.size(), sgServices.size());
+        }
+
+        Map<String, List<Double>> perf_results = new HashMap<>();
+        Map<String, List<FlowFailure>> perf_failures = new HashMap<>();
+        boolean delayTorn;
+        try {
+            EventLog.info("analysis", "------ Starting NC Analysis using %s ------", experimentConfig.ncAnalysisType);
+            if (experimentConfig.feasibilityOnly) {
+                delayTorn = checkFeasibility(perf_results, perf_failures, configuration, analyzedServices);
+            } else if (experimentConfig.schedulingPolicy == ExperimentConfig.SchedulingPolicy.SP) {
+                delayTorn = calculate_SP_Delays(perf_results, perf_failures, configuration, experimentConfig, analyzedServices);
+            } else {
+                delayTorn = conductNC_Analysis(perf_results, perf_failures, configuration, analyzedServices, experimentConfig);
+            }
+            if (experimentConfig.incrementalAnalysis) {
+                for (SGService sgs : analyzedServices) {
+                    List<FlowFailure> failures = perf_failures.get(sgs.getName());
+                    // Skipped (feasibility mode), cancelled or timed out SGSs stay stale and are analyzed again by
+                    // the next run
+                    if (failures == null || failures.contains(FlowFailure.CANCELLED) || failures.contains(FlowFailure.TIMEOUT)) {
+                        continue;
+                    }
+                    boundCache.put(sgs, perf_results.get(sgs.getName()));
+                    failureCache.put(sgs, failures);
+                    staleServices.remove(sgs);
+                }
+            }
+        } catch (StackOverflowError e) {
+            EventLog.error("analysis", "Stackoverflow error detected! Possible reason: Cyclic dependency in network.");
+            perf_results.clear();
+            perf_failures.clear();
+            incremental = false;
+            delayTorn = true;
+        }
+        if (incremental) {
+            // Reuse the cached delays of all SGSs which were not affected
+            for (SGService sgs : sgServices) {
+                if (!perf_results.containsKey(sgs.getName()) && boundCache.containsKey(sgs)) {
+                    perf_results.put(sgs.getName(), boundCache.get(sgs));
+                    perf_failures.put(sgs.getName(), failureCache.get(sgs));
+                }
+            }
+            delayTorn = sgServices.stream().anyMatch(tornServices::contains);
+        }
+        AnalysisResult result = new AnalysisResult(experimentConfig, sgServices, perf_results, perf_failures, delayTorn);
+        // A cancellation only affects the current run
+        cancelled = false;
+        metrics.recordPhase("analysis", System.nanoTime() - start);
+        metrics.recordRun();
+        return result;
+    }
+
+    /**
+     * Feasibility mode (see {@link ExperimentConfig#feasibilityOnly}): analyze the SGSs one after another, the one with
+     * the highest {@link #getCriticality(SGService)} first, and stop as soon as the deadline slack of an SGS is below
+     * the required one (see {@link #setRequiredSlack(double)}), by default at the first torn deadline.
+     *
+     * @param perf_results     Hashmap into which the results of the analyzed SGSs will be stored in.
+     * @param perf_failures    Hashmap into which the failure reasons of the flows of the analyzed SGSs will be stored in.
+     * @param analysisConfig   DiscoDNC analysis configuration (of the highest priority layer for SP)
+     * @param analyzedServices SGSs to be analyzed
+     * @return boolean if one of the delay constraints is torn
+     */
+    private boolean checkFeasibility(Map<String, List<Double>> perf_results, Map<String, List<FlowFailure>> perf_failures, AnalysisConfig analysisConfig, List<SGService> analyzedServices) {
+        Map<SGService, Double> criticality = new HashMap<>();
+        analyzedServices.forEach(sgs -> criticality.put(sgs, getCriticality(sgs)));
+        List<SGService> ordered = new ArrayList<>(analyzedServices);
+        ordered.sort(Comparator.comparingDouble(criticality::get).reversed());
+
+        boolean delayTorn = false;
+        for (SGService sgs : ordered) {
+            if (cancelled) {
+                break;
+            }
+            if (experimentConfig.schedulingPolicy == ExperimentConfig.SchedulingPolicy.SP) {
+                delayTorn |= calculate_SP_Delays(perf_results, perf_failures, analysisConfig, experimentConfig, List.of(sgs));
+            } else {
+                delayTorn |= conductNC_Analysis(perf_results, perf_failures, analysisConfig, List.of(sgs), experimentConfig);
+            }
+            // Slack of the bounded flows, no delay can be guaranteed if a flow has no bound (e.g. depends on a cycle)
+            double slack = Double.NEGATIVE_INFINITY;
+            if (perf_failures.get(sgs.getName()).stream().allMatch(Objects::isNull)) {
+                double maxDelay = perf_results.get(sgs.getName()).stream().mapToDouble(Double::doubleValue).max().orElse(0);
+                slack = sgs.getDeadline() * 1000 - Math.max(0, maxDelay);
+            }
+            if (slack < requiredSlack) {
+                EventLog.info("feasibility", "Stopped at slack %.2fms, %d/%d SGSs analyzed", slack, perf_results.size(), analyzedServices.size());
+                break;
+            }
+        }
+        return delayTorn;
+    }
+
+    /**
+     * Cheap estimation how likely an SGS misses its deadline, without NC analysis: the number of hops times the
+     * highest load (bitrate of all SGSs using an edge / bitrate of the edge) along the path, relative to the deadline.
+     *
+     * @param sgs SGS of this session
+     * @return the highest estimation of all paths of the SGS
+     */
+    private double getCriticality(SGService sgs) {
+        double criticality = 0;
+        for (List<String> path : sgs.getMultipath()) {
+            List<Edge> edges = topology.resolvePath(path);
+            double maxLoad = 0;
+            for (Edge edge : edges) {
+                double load = interference.getServices(edge).stream().mapToDouble(SGService::getBitrate).sum();
+                maxLoad = Math.max(maxLoad, load / getBitrate(edge));
+            }
+            criticality = Math.max(criticality, edges.size() * maxLoad);
+        }
+        return criticality / sgs.getDeadline();
+    }
+
+    /**
+     * Check if a candidate SGS can be added to the network without tearing a deadline. Only the SGSs interfering
+     * with the candidate are analyzed, together with the candidate, in a temporary session: first the candidate and
+     * the SGSs sharing an edge with it, then, only if their deadlines hold, the transitively interfering ones.
+     * The check stops after the first group with a torn deadline. Flows without a delay bound count as torn.
+     * <p>
+     * The server graph of this session is not modified. An SGS of this session with the same name as the candidate
+     * is replaced by the candidate for the check.
+     *
+     * @param candidate SGS to check, not part of this session
+     * @return accept/reject with the SGSs whose deadlines would be torn
+     */
+    public AdmissionDecision checkAdmission(SGService candidate) {
+        if (interference == null) {
+            throw new IllegalStateException("No NC network present, call createNCNetwork() first.");
+        }
+        long start = System.nanoTime();
+        Set<Edge> candidateEdges = new LinkedHashSet<>();
+        for (List<String> path : candidate.getMultipath()) {
+            candidateEdges.addAll(topology.resolvePath(path));
+        }
+        // Direct interferers first, they are the most likely to be torn by the candidate
+        List<SGService> direct = new ArrayList<>(List.of(candidate));
+        List<SGService> indirect = new ArrayList<>();
+        for (SGService sgs : interference.getInterferenceSet(candidateEdges)) {
+            if (sgs.getName().equals(candidate.getName())) {
+                continue;
+            }
+            if (interference.getEdges(sgs).stream().anyMatch(candidateEdges::contains)) {
+                direct.add(sgs);
+            } else {
+                indirect.add(sgs);
+            }
+        }
+        List<SGService> checkedServices = new ArrayList<>(direct);
+        checkedServices.addAll(indirect);
+
+        ExperimentConfig checkConfig = experimentConfig.copy();
+        checkConfig.incrementalAnalysis = false;
+        AnalysisSession checkSession = new AnalysisSession(edgeList, topology, curveCache, checkedServices, checkConfig);
+        checkSession.setBitrateOverrides(bitrateOverrides);
+        checkSession.createNCNetwork();
+        List<String> violators = checkSession.findViolations(direct);
+        int noAnalyzed = direct.size();
+        if (violators.isEmpty() && !indirect.isEmpty()) {
+            violators = checkSession.findViolations(indirect);
+            noAnalyzed += indirect.size();
+        }
+        metrics.recordPhase("admissionCheck", System.nanoTime() - start);
+        return new AdmissionDecision(candidate.getName(), violators, checkedServices.size() - 1, noAnalyzed);
+    }
+
+    /**
+     * Analyze some SGSs of this session and collect the ones missing their deadline.
+     *
+     * @param services SGSs to analyze
+     * @return names of the SGSs with a torn deadline or a flow without delay bound
+     */
+    private List<String> findViolations(List<SGService> services) {
+        Map<String, List<Double>> perf_results = new HashMap<>();
+        Map<String, List<FlowFailure>> perf_failures = new HashMap<>();
+        if (experimentConfig.schedulingPolicy == ExperimentConfig.SchedulingPolicy.SP) {
+            calculate_SP_Delays(perf_results, perf_failures, createAnalysisConfig(), experimentConfig, services);
+        } else {
+            conductNC_Analysis(perf_results, perf_failures, createAnalysisConfig(), services, experimentConfig);
+        }
+        List<String> violators = new ArrayList<>();
+        for (SGService sgs : services) {
+            if (tornServices.contains(sgs) || perf_failures.get(sgs.getName()).stream().anyMatch(Objects::nonNull)) {
+                violators.add(sgs.getName());
+            }
+        }
+        return violators;
+    }
+
+    /**
+     * @return new DiscoDNC analysis configuration according to the multiplexing of the experiment configuration
+     */
+    private AnalysisConfig createAnalysisConfig() {
+        return createAnalysisConfig(experimentConfig.multiplexing == AnalysisConfig.Multiplexing.ARBITRARY
+                ? AnalysisConfig.MultiplexingEnforcement.GLOBAL_ARBITRARY
+                : AnalysisConfig.MultiplexingEnforcement.SERVER_LOCAL);
+    }
+
+    /**
+     * @param enforcement multiplexing enforcement of the analysis
+     * @return new DiscoDNC analysis configuration using the arrival bounding method of the experiment configuration
+     */
+    private AnalysisConfig createAnalysisConfig(AnalysisConfig.MultiplexingEnforcement enforcement) {
+        AnalysisConfig configuration = new AnalysisConfig();
+        configuration.setArrivalBoundMethod(experimentConfig.arrivalBoundMethod);
+        configuration.enforceMultiplexing(enforcement);
+        return configuration;
+    }
+
+    /**
+     * Function to perform an NC analysis for strict priority scheduling, layer by layer. The servers of every priority
+     * carry the flows of this and all higher priorities (see {@link #addLayerFlowsToSG(List)}), the SGSs of one
+     * priority are analyzed in the layer of their priority. The layers were built with the network, no flows are added
+     * or removed here.
+     * <p>
+     * Every layer is analyzed with its own configuration: only for the highest priority the multiplexing specified in
+     * the experimentConfig can be used, for the other priorities Arbitrary has to be used.
+     *
+     * @param perf_results     Hashmap into which the results of the different SGSs will be stored in.
+     * @param perf_failures    Hashmap into which the failure reasons of the flows of the different SGSs will be stored in.
+     * @param analysisConfig   DiscoDNC network analysis configuration of the highest priority layer (not modified)
+     * @param experimentConfig Overall experiment configuration, containing the parameters
+     * @param analyzedServices SGSs to be analyzed, the flows of all SGSs are part of the network nevertheless
+     * @return boolean if one of the delay constraints is torn
+     */
+    private boolean calculate_SP_Delays(Map<String, List<Double>> perf_results, Map<String, List<FlowFailure>> perf_failures, AnalysisConfig analysisConfig, ExperimentConfig experimentConfig, List<SGService> analyzedServices) {
+        boolean delayTorn = false;
+        for (FlowPriority prio : FlowPriority.values()) {
+            List<SGService> analyzedprioSGSs = analyzedServices.stream().filter(sgService -> sgService.getPriority() == prio).toList();
+            if (analyzedprioSGSs.isEmpty()) {
+                continue;
+            }
+            AnalysisConfig layerConfig = prio == FlowPriority.values()[0] ? analysisConfig
+                    : createAnalysisConfig(AnalysisConfig.MultiplexingEnforcement.GLOBAL_ARBITRARY);
+            boolean prioDelayTorn = conductNC_Analysis(perf_results, perf_failures, layerConfig, analyzedprioSGSs, experimentConfig);
+            // Update delayTorn only to true
+            delayTorn = delayTorn | prioDelayTorn;
+        }
+        return delayTorn;
+    }
+
+    /**
+     * Helper function for conducting the DiscoDNC network analysis for every specified flow saved in sgServices.
+     * The flows are analyzed by up to {@link ExperimentConfig#analysisThreads} worker threads, the results are
+     * reported in the order of the SGSs and their flows in any case.
+     *
+     * @param results          Hashmap into which the results of the different SGSs will be stored in.
+     * @param failures         Hashmap into which the failure reasons of the flows of the different SGSs will be stored in.
+     * @param analysisConfig   DiscoDNC analysis configuration
+     * @param sgServices       SGSs to be analyzed
+     * @param experimentConfig Overall experimentConfiguration with the parameters
+     * @return boolean if one of the delay constraints is torn
+     */
+    private boolean conductNC_Analysis(Map<String, List<Double>> results, Map<String, List<FlowFailure>> failures, AnalysisConfig analysisConfig, List<SGService> sgServices, ExperimentConfig experimentConfig) {
+        // Every flow is analyzed once, macro-flows are shared by several SGSs (see aggregatesFlows())
+        Map<Flow, Integer> foiIndices = new HashMap<>();
+        List<Flow> fois = new ArrayList<>();
+        Set<Integer> cyclicFois = new HashSet<>();
+        for (SGService sgs : sgServices) {
+            Set<Integer> cyclicServicePaths = cyclicPaths.getOrDefault(sgs, Collections.emptySet());
+            List<Flow> flows = getFlows(sgs);
+            for (int pathIdx = 0; pathIdx < flows.size(); pathIdx++) {
+                int foiIdx = foiIndices.computeIfAbsent(flows.get(pathIdx), flow -> {
+                    fois.add(flow);
+                    return fois.size() - 1;
+                });
+                if (cyclicServicePaths.contains(pathIdx)) {
+                    cyclicFois.add(foiIdx);
+                }
+            }
+        }
+        List<FlowBound> flowBounds = boundFlows(fois, cyclicFois, analysisConfig, experimentConfig);
+
+        boolean delayTorn = false;
+        for (SGService sgs : sgServices) {
+            double maxDelay = 0;
+            EventLog.debug("sgs", "--- Analyzing SGS \"%s\" ---", sgs.getName());
+
+            List<Double> flowDelays = new ArrayList<>();
+            List<FlowFailure> flowFailures = new ArrayList<>();
+            for (Flow foi : getFlows(sgs)) {
+                FlowBound flowBound = flowBounds.get(foiIndices.get(foi));
+                flowFailures.add(flowBound.failure());
+                if (flowBound.failure() != null) {
+                    // Here we land e.g. when we have PMOO & FIFO!
+                    EventLog.log(EventLog.Level.WARN, "flowFailure", flowBound.error(), "%s: flow \"%s\" of %s failed: %s",
+                            experimentConfig.ncAnalysisType, foi.getAlias(), sgs.getName(), flowBound.failure());
+                    flowDelays.add(-1.0);
+                    continue;
+                }
+                double foi_delay = flowBound.delay();
+                // Log the end-to-end delay bound
+                EventLog.debug("flowBound", "flow \"%s\" of %s: delay bound %.2fms", foi.getAlias(), sgs.getName(), foi_delay * 1000);     // Convert s to ms
+
+                flowDelays.add(foi_delay * 1000);   // Convert s to ms
+                // compute service max flow delay
+                maxDelay = Math.max(foi_delay, maxDelay);
+            }
+            results.put(sgs.getName(), flowDelays);
+            failures.put(sgs.getName(), flowFailures);
+            EventLog.info("sgsBound", "Max service delay for %s is %.2fms (deadline: %.2fms)", sgs.getName(), maxDelay * 1000, sgs.getDeadline() * 1000);
+            // No delay can be guaranteed for flows depending on a cycle
+            if (sgs.getDeadline() < maxDelay || flowFailures.contains(FlowFailure.CYCLIC_DEPENDENCY)) {
+                EventLog.warn("deadline", "Service %s deadline not met (%.2fms/%.2fms)", sgs.getName(), maxDelay * 1000, sgs.getDeadline() * 1000);
+                tornServices.add(sgs);
+                delayTorn = true;
+            } else {
+                tornServices.remove(sgs);
+            }
+        }
+        return delayTorn;
+    }
+
+    /**
+     * Cancel the running (or the next) analysis. Flows which are not finished yet are recorded as
+     * {@link FlowFailure#CANCELLED}, the analysis returns as soon as possible. Can be called from any thread.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    /**
+     * Compute the delay bounds of all given flows. The flows are analyzed by the worker threads of this session (see
+     * {@link #getFlowExecutor(ExperimentConfig)}), which have a stack of {@link ExperimentConfig#analysisStackSize}.
+     * Up to {@link ExperimentConfig#analysisThreads} analyses run concurrently, including abandoned ones.
+     * <p>
+     * An analysis exceeding {@link ExperimentConfig#flowTimeBudget} is abandoned, its flow is recorded as failed. As
+     * DiscoDNC can't be interrupted, an abandoned analysis keeps its thread until it finishes and the server graph
+     * must not be modified meanwhile (see {@link #hasAbandonedTasks()}). A stack overflow only fails the affected
+     * flow, the remaining flows are analyzed nevertheless.
+     *
+     * @param fois             flows of interest to be analyzed
+     * @param cyclicFois       indices of the flows which depend on a cyclic dependency, they are not analyzed
+     * @param analysisConfig   DiscoDNC analysis configuration
+     * @param experimentConfig Overall experimentConfiguration with the parameters
+     * @return one bound per flow, in the same order as {@code fois}
+     */
+    private List<FlowBound> boundFlows(List<Flow> fois, Set<Integer> cyclicFois, AnalysisConfig analysisConfig, ExperimentConfig experimentConfig) {
+        FlowBound[] flowBounds = new FlowBound[fois.size()];
+        for (int foiIdx : cyclicFois) {
+            flowBounds[foiIdx] = new FlowBound(-1, FlowFailure.CYCLIC_DEPENDENCY, null);
+        }
+        progress.addTotal(fois.size());
+        progress.addFinished(cyclicFois.size());
+        ExecutorService executor = getFlowExecutor(experimentConfig);
+        int threads = Math.max(1, experimentConfig.analysisThreads);
+        long budget = experimentConfig.flowTimeBudget > 0 ? TimeUnit.MILLISECONDS.toNanos(experimentConfig.flowTimeBudget) : Long.MAX_VALUE;
+        // Tasks report the index of their flow when finished
+        BlockingQueue<Integer> finished = new LinkedBlockingQueue<>();
+        Map<Integer, FlowTask> running = new LinkedHashMap<>();
+        int nextIdx = 0;
+        try {
+            while (nextIdx < fois.size() || !running.isEmpty()) {
+                if (cancelled) {
+                    break;
+                }
+                // Abandoned analyses still occupy a thread
+                int slots = threads - running.size() - countAbandonedTasks();
+                while (slots > 0 && nextIdx < fois.size()) {
+                    int foiIdx = nextIdx++;
+                    if (flowBounds[foiIdx] != null) {
+                        continue;
+                    }
+                    FlowTask task = new FlowTask(fois.get(foiIdx), foiIdx, analysisConfig, experimentConfig, finished);
+                    running.put(foiIdx, task);
+                    executor.execute(task);
+                    slots--;
+                }
+
+                // Wait for the next task to finish, but wake up for the next time budget to expire, for abandoned
+                // analyses to finish and for checking the cancellation regularly
+                long now = System.nanoTime();
+                long wait = TimeUnit.MILLISECONDS.toNanos(100);
+                for (FlowTask task : running.values()) {
+                    if (task.startTime != 0) {
+                        wait = Math.min(wait, task.startTime + budget - now);
+                    }
+                }
+                Integer finishedIdx = finished.poll(Math.max(0, wait), TimeUnit.NANOSECONDS);
+                while (finishedIdx != null) {
+                    FlowTask task = running.remove(finishedIdx);
+                    if (task != null) {
+                        flowBounds[finishedIdx] = task.flowBound;
+                        progress.addFinished(1);
+                    }
+                    finishedIdx = finished.poll();
+                }
+
+                now = System.nanoTime();
+                Iterator<Map.Entry<Integer, FlowTask>> iterator = running.entrySet().iterator();
+                while (iterator.hasNext()) {
+                    Map.Entry<Integer, FlowTask> entry = iterator.next();
+                    FlowTask task = entry.getValue();
+                    if (task.startTime != 0 && now - task.startTime >= budget) {
+                        task.abandon();
+                        flowBounds[entry.getKey()] = new FlowBound(-1, FlowFailure.TIMEOUT, null);
+                        progress.addFinished(1);
+                        iterator.remove();
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            cancelled = true;
+        }
+
+        // Abandon the remaining tasks, after a cancellation
+        running.values().forEach(FlowTask::abandon);
+        for (int i = 0; i < flowBounds.length; i++) {
+            if (flowBounds[i] == null) {
+                flowBounds[i] = new FlowBound(-1, FlowFailure.CANCELLED, null);
+                progress.addFinished(1);
+            }
+        }
+        return Arrays.asList(flowBounds);
+    }
+
+    /**
+     * The executor is created on first use and recreated if the stack size changed. Its threads terminate when idle,
+     * so a session doesn't need to be closed.
+     *
+     * @param experimentConfig configuration defining the number of threads and their stack size
+     * @return executor with {@link ExperimentConfig#analysisThreads} daemon threads for analyzing the flows
+     */
+    private ThreadPoolExecutor getFlowExecutor(ExperimentConfig experimentConfig) {
+        int threads = Math.max(1, experimentConfig.analysisThreads);
+        long stackSize = experimentConfig.analysisStackSize;
+        if (flowExecutor == null || flowStackSize != stackSize) {
+            if (flowExecutor != null) {
+                // Abandoned analyses of the old executor finish nevertheless
+                flowExecutor.shutdown();
+            }
+            flowExecutor = new ThreadPoolExecutor(threads, threads, 10, TimeUnit.SECONDS, new LinkedBlockingQueue<>(), runnable -> {
+                Thread thread = new Thread(null, runnable, "nc-flow-" + flowThreadCounter.incrementAndGet(), stackSize);
+                // Abandoned analyses must not keep the JVM alive
+                thread.setDaemon(true);
+                return thread;
+            });
+            flowExecutor.allowCoreThreadTimeOut(true);
+            flowStackSize = stackSize;
+        } else if (threads > flowExecutor.getMaximumPoolSize()) {
+            flowExecutor.setMaximumPoolSize(threads);
+            flowExecutor.setCorePoolSize(threads);
+        } else if (threads < flowExecutor.getMaximumPoolSize()) {
+            flowExecutor.setCorePoolSize(threads);
+            flowExecutor.setMaximumPoolSize(threads);
+        }
+        return flowExecutor;
+    }
+
+    /**
+     * @return number of abandoned analyses which are still running
+     */
+    private int countAbandonedTasks() {
+        abandonedTasks.removeIf(task -> task.done);
+        return abandonedTasks.size();
+    }
+
+    /**
+     * @return true if abandoned analyses (see {@link #boundFlows(List, Set, AnalysisConfig, ExperimentConfig)}) still
+     * read the server graph, which must not be modified then
+     */
+    private boolean hasAbandonedTasks() {
+        return countAbandonedTasks() > 0;
+    }
+
+    /**
+     * Analysis of one flow of interest, executed by a worker thread of the session.
+     */
+    private class FlowTask implements Runnable {
+        private final Flow foi;
+        private final int foiIdx;
+        private final AnalysisConfig analysisConfig;
+        private final ExperimentConfig experimentConfig;
+        private final BlockingQueue<Integer> finished;
+        // Set by the first of run() and abandon()
+        private final AtomicBoolean claimed = new AtomicBoolean();
+        private volatile long startTime = 0;
+        private volatile boolean done = false;
+        private volatile FlowBound flowBound;
+
+        FlowTask(Flow foi, int foiIdx, AnalysisConfig analysisConfig, ExperimentConfig experimentConfig, BlockingQueue<Integer> finished) {
+            this.foi = foi;
+            this.foiIdx = foiIdx;
+            this.analysisConfig = analysisConfig;
+            this.experimentConfig = experimentConfig;
+            this.finished = finished;
+        }
+
+        @Override
+        public void run() {
+            if (!claimed.compareAndSet(false, true)) {
+                // Abandoned before it was started
+                return;
+            }
+            startTime = System.nanoTime();
+            try {
+                flowBound = analyzeFlow(foi, analysisConfig, experimentConfig);
+            } catch (StackOverflowError e) {
+                flowBound = new FlowBound(-1, FlowFailure.STACK_OVERFLOW, null);
+            } catch (Throwable e) {
+                flowBound = new FlowBound(-1, FlowFailure.ANALYSIS_ERROR, e);
+            } finally {
+                done = true;
+                finished.add(foiIdx);
+            }
+        }
+
+        /**
+         * Give up the result of the task. A task which wasn't started yet is never started, a running one is tracked
+         * until it finishes.
+         */
+        void abandon() {
+            if (!claimed.compareAndSet(false, true)) {
+                abandonedTasks.add(this);
+            }
+        }
+    }
+
+    /**
+     * Conduct the DiscoDNC analysis for one flow of interest.
+     *
+     * @param foi              flow of interest
+     * @param analysisConfig   DiscoDNC analysis configuration
+     * @param experimentConfig Overall experimentConfiguration with the parameters
+     * @return end-to-end delay bound of the flow [s] (including the propagation delay) or the analysis error
+     */
+    private FlowBound analyzeFlow(Flow foi, AnalysisConfig analysisConfig, ExperimentConfig experimentConfig) {
+        long start = System.nanoTime();
+        try {
+            TandemAnalysis ncanalysis = switch (experimentConfig.ncAnalysisType) {
+                case TFA -> TandemAnalysis.performTfaEnd2End(this.serverGraph, analysisConfig, foi);
+                case SFA -> TandemAnalysis.performSfaEnd2End(this.serverGraph, analysisConfig, foi);
+                case PMOO -> TandemAnalysis.performPmooEnd2End(this.serverGraph, analysisConfig, foi);
+                case TMA -> new TandemMatchingAnalysis(this.serverGraph, analysisConfig);
+            };
+            // TMA doesn't have the convenience function
+            if (experimentConfig.ncAnalysisType == TandemAnalysis.Analyses.TMA) {
+                ncanalysis.performAnalysis(foi);
+            }
+            // Get the foi delay
+            double foi_delay = ncanalysis.getDelayBound().doubleValue(); // delay is in s
+
+            // Calculate propagation delay (if no propagation delay is desired, configuration value is set to 0)
+            double prop_delay = experimentConfig.propagationDelay * foi.getPath().numServers();
+            // Add propagation delay to delay bound
+            return new FlowBound(foi_delay + prop_delay, null, null);
+        } catch (Exception e) {
+            return new FlowBound(-1, FlowFailure.ANALYSIS_ERROR, e);
+        } finally {
+            metrics.recordFlowAnalysis(experimentConfig.ncAnalysisType + "-" + experimentConfig.schedulingPolicy,
+                    System.nanoTime() - start);
+        }
+    }
+
+    /**
+     * Outcome of a single flow analysis.
+     *
+     * @param delay   end-to-end delay bound [s], only valid if no failure occurred
+     * @param failure reason why no bound was computed, null on success
+     * @param error   exception thrown by the analysis, if any
+     */
+    private record FlowBound(double delay, FlowFailure failure, Throwable error) {
+    }
+
+    /**
+     * This function adds {@code nmbFlow} number of flows to the server graph (sg is modified in place).
+     *
+     * @param sg            Servergraph to add the flows to.
+     * @param sgServiceList List of all available SGServices from which the flows shall be derived.
+     * @param nmbFlow       number of flows which should be added. Use "-1" for all available flows.
+     * @param fixedPrio     Use a fixed priority to choose the NC server where the flows shall be added.
+     *                      Set to "null" if the SGS priority shall be used.
+     */
+    private void addFlowsToSG(ServerGraph sg, List<SGService> sgServiceList, int nmbFlow, FlowPriority fixedPrio) {
+        addFlowsToSG(sg, sgServiceList, nmbFlow, fixedPrio, serviceFlows);
+    }
+
+    /**
+     * For details see {@link #addFlowsToSG(ServerGraph, List, int, FlowPriority)}
+     *
+     * @param flowMap map the created flows are recorded in, per SGS
+     */
+    private void addFlowsToSG(ServerGraph sg, List<SGService> sgServiceList, int nmbFlow, FlowPriority fixedPrio, Map<SGService, List<Flow>> flowMap) {
+        // nmbFlow = -1 is used to add all available flows.
+        if (nmbFlow == -1) {
+            if (aggregatesFlows()) {
+                addMacroFlowsToSG(sg, sgServiceList, fixedPrio, flowMap);
+                return;
+            }
+            nmbFlow = Integer.MAX_VALUE;
+        }
+        // Add nmbFlow flows to the network (at most the available ones)
+        int counter = 0;
+        for (SGService service : sgServiceList) {
+            // Create arrival curve with specified details
+            ArrivalCurve arrival_curve = createArrivalCurve(service.getBitrate(), service.getBucket_size());
+            // Iterate over every field device - server combination (aka Path)
+            for (int pathIdx = 0; pathIdx < service.getMultipath().size(); pathIdx++) {
+                List<Server> dncPath = getServerPath(service, pathIdx, fixedPrio);
+                // Create flow and add it to the network
+                try {
+                    Flow flow = sg.addFlow(arrival_curve, dncPath);
+                    flowMap.computeIfAbsent(service, k -> new ArrayList<>()).add(flow);
+                    if (++counter >= nmbFlow) {
+                        // Abort adding more flows
+                        return;
+                    }
+                } catch (Exception e) {
+                    //TODO: Exception Handling
+                    throw new RuntimeException(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * @param bitrate     bitrate of the arrival curve
+     * @param bucket_size bucket size of the arrival curve, only used for token buckets
+     * @return arrival curve according to {@link ExperimentConfig#arrivalCurveType}
+     */
+    private ArrivalCurve createArrivalCurve(double bitrate, double bucket_size) {
+        return switch (experimentConfig.arrivalCurveType) {
+            case TokenBucket -> Curve.getFactory().createTokenBucket(bitrate, bucket_size);
+            case PeakArrivalRate -> Curve.getFactory().createPeakArrivalRate(bitrate);
+        };
+    }
+
+    /**
+     * @param service   SGS of the path
+     * @param pathIdx   index of the path in the multipath of the SGS
+     * @param fixedPrio fixed priority of the servers, null if the priority of the SGS shall be used
+     * @return the servers along the path
+     */
+    private List<Server> getServerPath(SGService service, int pathIdx, FlowPriority fixedPrio) {
+        List<Server> dncPath = new ArrayList<>();
+        // Find servers along path
+        for (Edge edge : topology.resolvePath(service.getMultipath().get(pathIdx))) {
+            // Add the found edge to the dncPath
+            if (fixedPrio == null) {
+                // The priority of the service shall be used
+                dncPath.add(getServer(edge, service.getPriority()));
+            } else {
+                // A fixed value for the priority shall be used
+                dncPath.add(getServer(edge, fixedPrio));
+            }
+        }
+        return dncPath;
+    }
+
+    /**
+     * The bound of a macro-flow only holds for each of its members under FIFO multiplexing. Under arbitrary
+     * multiplexing, and in the lower SP layers which are always analyzed with it, the members are analyzed separately.
+     *
+     * @return if the flows are aggregated into macro-flows, see {@link ExperimentConfig#aggregateFlows}
+     */
+    private boolean aggregatesFlows() {
+        return experimentConfig.aggregateFlows && experimentConfig.multiplexing == AnalysisConfig.Multiplexing.FIFO
+                && experimentConfig.schedulingPolicy != ExperimentConfig.SchedulingPolicy.SP;
+    }
+
+    /**
+     * Add the flows of the SGSs aggregated into macro-flows: all paths with the same servers and the same SGS
+     * priority share one flow, whose arrival curve is the sum of the arrival curves of the members. Paths joining
+     * an existing macro-flow (e.g. an SGS added incrementally) cause the macro-flow to be rebuilt.
+     *
+     * @param sg            Servergraph to add the flows to.
+     * @param sgServiceList SGSs whose flows shall be added
+     * @param fixedPrio     fixed priority of the servers, null if the priority of the SGS shall be used
+     * @param flowMap       map the macro-flows are recorded in, per SGS and path
+     */
+    private void addMacroFlowsToSG(ServerGraph sg, List<SGService> sgServiceList, FlowPriority fixedPrio, Map<SGService, List<Flow>> flowMap) {
+        Set<MacroFlow> changed = new LinkedHashSet<>();
+        for (SGService service : sgServiceList) {
+            // Reserve a slot per path, the SP layers append their flows to the same list
+            List<Flow> flows = flowMap.computeIfAbsent(service, k -> new ArrayList<>());
+            int offset = flows.size();
+            for (int pathIdx = 0; pathIdx < service.getMultipath().size(); pathIdx++) {
+                flows.add(null);
+                MacroKey key = new MacroKey(service.getPriority(), getServerPath(service, pathIdx, fixedPrio));
+                MacroFlow macroFlow = macroFlows.computeIfAbsent(key, k -> new MacroFlow(k.path()));
+                macroFlow.members.add(new MacroMember(service, offset + pathIdx, flowMap));
+                changed.add(macroFlow);
+            }
+        }
+        for (MacroFlow macroFlow : changed) {
+            rebuildMacroFlow(sg, macroFlow);
+        }
+    }
+
+    /**
+     * Remove an SGS from all macro-flows. Macro-flows without members are removed, the others are rebuilt.
+     *
+     * @param service SGS to remove
+     */
+    private void removeFromMacroFlows(SGService service) {
+        Iterator<MacroFlow> iterator = macroFlows.values().iterator();
+        while (iterator.hasNext()) {
+            MacroFlow macroFlow = iterator.next();
+            if (!macroFlow.members.removeIf(member -> member.service() == service)) {
+                continue;
+            }
+            if (macroFlow.members.isEmpty()) {
+                try {
+                    serverGraph.removeFlow(macroFlow.flow);
+                } catch (Exception e) {
+                    throw new RuntimeException(e);
+                }
+                iterator.remove();
+            } else {
+                rebuildMacroFlow(serverGraph, macroFlow);
+            }
+        }
+    }
+
+    /**
+     * Replace the flow of a macro-flow by one with the summed arrival curve of the current members and bind it to
+     * all members.
+     *
+     * @param sg        Servergraph containing the macro-flow
+     * @param macroFlow macro-flow to rebuild
+     */
+    private void rebuildMacroFlow(ServerGraph sg, MacroFlow macroFlow) {
+        double bitrate = 0;
+        double bucket_size = 0;
+        for (MacroMember member : macroFlow.members) {
+            bitrate += member.service().getBitrate();
+            bucket_size += member.service().getBucket_size();
+        }
+        try {
+            if (macroFlow.flow != null) {
+                sg.removeFlow(macroFlow.flow);
+            }
+            macroFlow.flow = sg.addFlow(createArrivalCurve(bitrate, bucket_size), macroFlow.path);
+        } catch (Exception e) {
+            throw new RuntimeException(e);
+        }
+        for (MacroMember member : macroFlow.members) {
+            member.flowMap().get(member.service()).set(member.flowIdx(), macroFlow.flow);
+        }
+    }
+
+    /**
+     * Identification of a macro-flow: all flows with the same SGS priority and servers are aggregated.
+     */
+    private record MacroKey(FlowPriority priority, List<Server> path) {
+    }
+
+    /**
+     * Path of an SGS aggregated into a macro-flow.
+     *
+     * @param flowIdx index of the flow in the flow list of the SGS
+     * @param flowMap map in which the flow of the path is recorded
+     */
+    private record MacroMember(SGService service, int flowIdx, Map<SGService, List<Flow>> flowMap) {
+    }
+
+    private static class MacroFlow {
+        private final List<Server> path;
+        private final List<MacroMember> members = new ArrayList<>();
+        private Flow flow;
+
+        MacroFlow(List<Server> path) {
+            this.path = path;
+        }
+    }
+
+    /**
+     * Helper function removing every flow of the given server graph and all flow references of this session.
+     *
+     * @param sg ServerGraph from which the flows shall be removed
+     */
+    private void removeTestFlows(ServerGraph sg) {
+        for (Flow flow : new ArrayList<>(sg.getFlows())) {
+            try {
+                sg.removeFlow(flow);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+        serviceFlows.clear();
+        layerFlows.clear();
+        macroFlows.clear();
+    }
+
+    /**
+     * Test case which does a network calculus analysis after adding each flow.
+     *
+     * @param sg            ServerGraph which includes the servers and turns already
+     * @param sgServiceList List of all available SGServices from which the flows shall be derived.
+     */
+    @SuppressWarnings("unused")
+    private void testFlowAfterFlow(ServerGraph sg, List<SGService> sgServiceList) {
+        // Get the total number of flows first
+        int maxFlow = 0;
+        for (SGService service : sgServiceList) {
+            maxFlow += service.getMultipath().size();
+        }
+
+        for (int nmbFlow = 1; nmbFlow <= maxFlow; nmbFlow++) {
+            addFlowsToSG(sg, sgServiceList, nmbFlow, FlowPriority.HIGH);
+            // Safe the server graph
+            this.serverGraph = sg;
+            EventLog.info("network", "%d Flows", sg.getFlows().size());
+
+            calculateNCDelays();
+
+            // Delete the flows
+            removeTestFlows(sg);
+        }
+    }
+
+
+    /**
+     * Test case which does a network calculus analysis after adding each flow.
+     *
+     * @param sg            ServerGraph which includes the servers and turns already
+     * @param sgServiceList List of all available SGServices from which the flows shall be derived.
+     */
+    @SuppressWarnings("unused")
+    private void testFlowPairs(ServerGraph sg, List<SGService> sgServiceList) {
+        List<SGService> sgServiceListPre = new ArrayList<>();
+        // Modify "max_depth" according to the test case you want to simulate
+        recursiveCallFnc(sg, sgServiceList, sgServiceListPre, 1, 3);
+    }
+
+    /**
+     * This function is used to test different combinations of flows. The function is meant as a recursive call, initialize the {@code curr_depth} with 1.
+     *
+     * @param sg                Disco server graph to use
+     * @param sgServiceList     total list of SGS
+     * @param servicesCumulated List of services already accumulated by previous recursive calls. Call with empty list as initial call.
+     * @param curr_depth        current recursion depth. Initialize with 1 in initial call.
+     * @param max_depth         maximal recursion depth aka number of flows per combination.
+     */
+    private void recursiveCallFnc(ServerGraph sg, List<SGService> sgServiceList, List<SGService> servicesCumulated, int curr_depth, int max_depth) {
+        for (int serviceCntInner = 0; serviceCntInner < sgServiceList.size(); serviceCntInner++) {
+            SGService serviceInner = sgServiceList.get(serviceCntInner);
+            // Iterate over every flow in this service in outer loop
+            for (int flowCntInner = 0; flowCntInner < serviceInner.getMultipath().size(); flowCntInner++) {
+                List<String> pathInner = serviceInner.getMultipath().get(flowCntInner);
+                // Add those two to the network and calculate
+                List<List<String>> newPathListInner = new ArrayList<>();
+                newPathListInner.add(pathInner);
+                SGService serviceNewInner = new SGService(serviceInner.getName(), serviceInner.getServer(), serviceInner.getBucket_size(), serviceInner.getBitrate(), serviceInner.getDeadline(), newPathListInner, serviceInner.getPriority());
+                // Add the two flows to the network
+                List<SGService> sgServicesCompare = new ArrayList<>(servicesCumulated);
+                sgServicesCompare.add(serviceNewInner);
+
+                if (curr_depth >= max_depth) {
+                    // Do the final computation
+                    this.sgServices = sgServicesCompare;
+                    addFlowsToSG(sg, sgServicesCompare, -1, FlowPriority.HIGH);
+                    // Safe the server graph
+                    this.serverGraph = sg;
+                    EventLog.info("network", "%d Flows", sg.getFlows().size());
+
+                    calculateNCDelays();
+
+                    // Delete the flows
+                    removeTestFlows(sg);
+                } else {
+                    recursiveCallFnc(sg, sgServiceList, sgServicesCompare, curr_depth + 1, max_depth);
+                }
+            }
+        }
+    }
+
+    /**
+     * Special test case for the presentation scenario, using the "SE" service, path "F23 - S1" and
+     * the "LM" service, path "F12 - S2". Only adding those two flows, results in a stackoverflow.
+     *
+     * @param sg ServerGraph which includes the servers and turns already
+     */
+    @SuppressWarnings("unused")
+    private void testBidirectionalFlow(ServerGraph sg) {
+        {
+            SGService service = sgServices.get(0);  // "SE" service
+            // Create arrival curve with specified details
+            ArrivalCurve arrival_curve = Curve.getFactory().createTokenBucket(service.getBitrate(), service.getBucket_size());
+
+            int pathIdx = 4; // path "F23 - S1"
+            List<String> path = service.getMultipath().get(pathIdx);
+            List<Server> dncPath = new ArrayList<>();
+            List<String> edgeNodes = new ArrayList<>();
+            // Find servers along path
+            for (int i = 1; i < path.size(); i++) {  // Important: We start with the second item in the list!
+                edgeNodes.clear();
+                edgeNodes.add(path.get(i - 1));
+                edgeNodes.add(path.get(i));
+                Collections.sort(edgeNodes);    // Important for comparison
+                // Add the found edge to the dncPath
+                dncPath.add(getServer(topology.findEdge(edgeNodes.get(0), edgeNodes.get(1)), FlowPriority.HIGH));
+            }
+            // Create flow and add it to the network
+            try {
+                Flow flow = sg.addFlow(arrival_curve, dncPath);
+                serviceFlows.computeIfAbsent(service, k -> new ArrayList<>()).add(flow);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+        {
+            SGService service = sgServices.get(3);  // "LM" service
+            // Create arrival curve with specified details
+            ArrivalCurve arrival_curve = Curve.getFactory().createTokenBucket(service.getBitrate(), service.getBucket_size());
+
+            int pathIdx = 0; // Path "F23 - S1"
+            List<String> path = service.getMultipath().get(pathIdx);
+            List<Server> dncPath = new ArrayList<>();
+            List<String> edgeNodes = new ArrayList<>();
+            // Find servers along path
+            for (int i = 1; i < path.size(); i++) {  // Important: We start with the second item in the list!
+                edgeNodes.clear();
+                edgeNodes.add(path.get(i - 1));
+                edgeNodes.add(path.get(i));
+                Collections.sort(edgeNodes);    // Important for comparison
+                // Add the found edge to the dncPath
+                dncPath.add(getServer(topology.findEdge(edgeNodes.get(0), edgeNodes.get(1)), FlowPriority.HIGH));
+            }
+            // Create flow and add it to the network
+            try {
+                Flow flow = sg.addFlow(arrival_curve, dncPath);
+                serviceFlows.computeIfAbsent(service, k -> new ArrayList<>()).add(flow);
+            } catch (Exception e) {
+                throw new RuntimeException(e);
+            }
+        }
+        // Safe the server graph
+        this.serverGraph = sg;
+        EventLog.info("network", "%d Flows", sg.getFlows().size());
+
+        calculateNCDelays();
+
+        // Delete the flows
+        removeTestFlows(sg);
+    }
+}
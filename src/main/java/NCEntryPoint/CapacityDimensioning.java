@@ -0,0 +1,161 @@
+import java.util.*;
+import java.util.function.Function;
+
+/**
+ * Searches the minimal link bitrates at which all SGS deadlines hold.
+ * <p>
+ * The edges used by at least one flow are grouped, either by link class (edges with the same bitrate, see
+ * {@link Granularity#EDGE_CLASS}) or one group per edge ({@link Granularity#EDGE}). The bitrate of every group is
+ * binary-searched between the load of its edges (infeasible) and a feasible bitrate, while the other groups keep their
+ * current bitrate. The groups with the highest total bitrate are minimized first. Every probe is a feasibility
+ * analysis (see {@link ExperimentConfig#feasibilityOnly}) of a session with the probed bitrates as overrides; the
+ * edge and SGS definitions are not modified.
+ * <p>
+ * Flows without delay bound (e.g. timeouts) make a probe infeasible.
+ */
+public class CapacityDimensioning {
+    /**
+     * Grouping of the edges, one bitrate is searched per group.
+     */
+    public enum Granularity {
+        EDGE_CLASS, EDGE
+    }
+
+    private static final int MAX_SCALING_STEPS = 10;
+
+    private final List<Edge> edgeList;
+    private final TopologyIndex topology;
+    private final ServiceCurveCache curveCache;
+    private final List<SGService> sgServices;
+    private final ExperimentConfig experimentConfig;
+    private final Function<AnalysisSession, AnalysisResult> runner;
+    private double tolerance = 0.01;
+    private int noProbes = 0;
+
+    /**
+     * @param edgeList         edge definitions of the network (only read)
+     * @param topology         index of the edge definitions (only read)
+     * @param curveCache       cache providing the service curves of the servers
+     * @param sgServices       SGS definitions using the network (only read)
+     * @param experimentConfig configuration of the probes, copied per probe
+     * @param runner           analyzes a probe session, e.g. for making it cancellable. Can abort the search by
+     *                         throwing an unchecked exception.
+     */
+    public CapacityDimensioning(List<Edge> edgeList, TopologyIndex topology, ServiceCurveCache curveCache, List<SGService> sgServices,
+                                ExperimentConfig experimentConfig, Function<AnalysisSession, AnalysisResult> runner) {
+        this.edgeList = edgeList;
+        this.topology = topology;
+        this.curveCache = curveCache;
+        this.sgServices = sgServices;
+        this.experimentConfig = experimentConfig;
+        this.runner = runner;
+    }
+
+    /**
+     * @param tolerance relative precision of the found bitrates, e.g. 0.01 for 1%
+     */
+    public void setTolerance(double tolerance) {
+        this.tolerance = Math.max(1E-6, tolerance);
+    }
+
+    /**
+     * @return number of analyses of the last {@link #dimension(Granularity)} call
+     */
+    public int getNoProbes() {
+        return noProbes;
+    }
+
+    /**
+     * Search the minimal bitrates. If the current bitrates are infeasible, they are doubled until all deadlines hold
+     * first.
+     *
+     * @param granularity grouping of the edges
+     * @return minimal feasible bitrate [Byte/s] per edge ("node1,node2"), in the order of the edge definitions.
+     * Edges without flows keep their bitrate.
+     * @throws IllegalStateException if the deadlines can't be met by increasing the bitrates
+     */
+    public Map<String, Double> dimension(Granularity granularity) {
+        noProbes = 0;
+        Map<Edge, Double> loads = getLoads();
+        // Group the used edges, keeping the order of the edge definitions
+        Map<String, List<Edge>> groups = new LinkedHashMap<>();
+        for (Edge edge : edgeList) {
+            if (loads.containsKey(edge)) {
+                String group = granularity == Granularity.EDGE ? getName(edge) : String.valueOf(edge.getBitrate());
+                groups.computeIfAbsent(group, k -> new ArrayList<>()).add(edge);
+            }
+        }
+        Map<String, Double> rates = new HashMap<>();
+        groups.forEach((group, edges) -> rates.put(group, edges.get(0).getBitrate()));
+
+        // Start from a feasible point
+        int scalingSteps = 0;
+        while (!isFeasible(groups, rates)) {
+            if (++scalingSteps > MAX_SCALING_STEPS) {
+                throw new IllegalStateException("Deadlines can't be met with " + (1 << MAX_SCALING_STEPS) + " times the link bitrates.");
+            }
+            rates.replaceAll((group, rate) -> rate * 2);
+        }
+
+        // The groups with the highest total capacity are minimized first
+        List<String> order = new ArrayList<>(groups.keySet());
+        order.sort(Comparator.comparingDouble((String group) -> rates.get(group) * groups.get(group).size()).reversed());
+        for (String group : order) {
+            // Below the load of its edges, no delay bound exists
+            double low = groups.get(group).stream().mapToDouble(loads::get).max().orElse(0);
+            double high = rates.get(group);
+            while (high - low > tolerance * high) {
+                double mid = (low + high) / 2;
+                rates.put(group, mid);
+                if (isFeasible(groups, rates)) {
+                    high = mid;
+                } else {
+                    low = mid;
+                }
+            }
+            rates.put(group, high);
+            EventLog.info("dimensioning", "%s -> %.0f Byte/s (%d probes)", group, high, noProbes);
+        }
+
+        Map<String, Double> edgeRates = new LinkedHashMap<>();
+        for (Edge edge : edgeList) {
+            edgeRates.put(getName(edge), edge.getBitrate());
+        }
+        groups.forEach((group, edges) -> edges.forEach(edge -> edgeRates.put(getName(edge), rates.get(group))));
+        return edgeRates;
+    }
+
+    /**
+     * @return summed bitrate [Byte/s] of all flows per used edge
+     */
+    private Map<Edge, Double> getLoads() {
+        Map<Edge, Double> loads = new HashMap<>();
+        for (SGService sgs : sgServices) {
+            for (List<String> path : sgs.getMultipath()) {
+                for (Edge edge : topology.resolvePath(path)) {
+                    loads.merge(edge, (double) sgs.getBitrate(), Double::sum);
+                }
+            }
+        }
+        return loads;
+    }
+
+    private boolean isFeasible(Map<String, List<Edge>> groups, Map<String, Double> rates) {
+        Map<Edge, Double> overrides = new HashMap<>();
+        groups.forEach((group, edges) -> edges.forEach(edge -> overrides.put(edge, rates.get(group))));
+        ExperimentConfig probeConfig = experimentConfig.copy();
+        probeConfig.feasibilityOnly = true;
+        probeConfig.incrementalAnalysis = false;
+        AnalysisSession probe = new AnalysisSession(edgeList, topology, curveCache, sgServices, probeConfig);
+        probe.setBitrateOverrides(overrides);
+        probe.createNCNetwork();
+        AnalysisResult result = runner.apply(probe);
+        noProbes++;
+        // Flows without bound and SGSs skipped by the feasibility mode make the minimal slack negative infinity
+        return !result.isDelayTorn() && result.getMinSlack() >= 0;
+    }
+
+    private static String getName(Edge edge) {
+        return String.join(",", edge.getNodes());
+    }
+}
@@ -0,0 +1,53 @@
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Writes the results as semicolon separated CSV file, one row per result. The header row contains the names of the
+ * configuration parameters.
+ */
+public class CsvResultSink extends ResultSink {
+    private final FileChannel channel;
+    private boolean headerWritten = false;
+
+    /**
+     * @param basePath path of the file without extension
+     * @throws IOException if the file can't be created
+     */
+    CsvResultSink(Path basePath) throws IOException {
+        super(basePath);
+        channel = openChannel(basePath.resolveSibling(basePath.getFileName() + ".csv"));
+    }
+
+    @Override
+    public synchronized void write(AnalysisResult result) {
+        StringBuilder rows = new StringBuilder();
+        if (!headerWritten) {
+            appendRow(rows, result.getConfigNames());
+            headerWritten = true;
+        }
+        List<String> row = new ArrayList<>();
+        result.writeResultInBuffer(row);
+        appendRow(rows, row);
+        try {
+            writeText(channel, rows);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private static void appendRow(StringBuilder rows, List<String> row) {
+        rows.append(String.join(";", row)).append(System.lineSeparator());
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            channel.close();
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
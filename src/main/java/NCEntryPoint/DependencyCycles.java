@@ -0,0 +1,155 @@
+import java.util.*;
+
+/**
+ * Finds cyclic dependencies in a directed graph of named nodes (e.g. NC servers connected by the turns of the flows),
+ * using Tarjan's algorithm for strongly connected components. The search is iterative, deep graphs don't overflow
+ * the stack.
+ * <p>
+ * Every strongly connected component with more than one node (or with a self-loop) is cyclic. Nodes which can be
+ * reached from a cyclic component are tainted: feed-forward analyses of flows traversing them would run into the cycle.
+ */
+public class DependencyCycles {
+    private final Map<String, Set<String>> graph;
+    private final List<Set<String>> cyclicComponents = new ArrayList<>();
+    private final Set<String> taintedNodes = new HashSet<>();
+
+    /**
+     * Analyze a graph.
+     *
+     * @param graph successors per node, nodes only appearing as successors don't need an own entry
+     */
+    public DependencyCycles(Map<String, Set<String>> graph) {
+        this.graph = graph;
+        findComponents();
+        // Everything downstream of a cycle depends on it
+        Deque<String> queue = new ArrayDeque<>();
+        for (Set<String> component : cyclicComponents) {
+            taintedNodes.addAll(component);
+            queue.addAll(component);
+        }
+        while (!queue.isEmpty()) {
+            for (String successor : successors(queue.poll())) {
+                if (taintedNodes.add(successor)) {
+                    queue.add(successor);
+                }
+            }
+        }
+    }
+
+    private Set<String> successors(String node) {
+        return graph.getOrDefault(node, Collections.emptySet());
+    }
+
+    private void findComponents() {
+        Map<String, Integer> index = new HashMap<>();
+        Map<String, Integer> lowLink = new HashMap<>();
+        Set<String> onStack = new HashSet<>();
+        Deque<String> stack = new ArrayDeque<>();
+        // DFS call stack: node and the iterator over its remaining successors
+        Deque<Map.Entry<String, Iterator<String>>> callStack = new ArrayDeque<>();
+
+        for (String root : graph.keySet()) {
+            if (index.containsKey(root)) {
+                continue;
+            }
+            index.put(root, index.size());
+            lowLink.put(root, index.get(root));
+            stack.push(root);
+            onStack.add(root);
+            callStack.push(Map.entry(root, successors(root).iterator()));
+
+            while (!callStack.isEmpty()) {
+                String node = callStack.peek().getKey();
+                Iterator<String> iterator = callStack.peek().getValue();
+                if (iterator.hasNext()) {
+                    String successor = iterator.next();
+                    if (!index.containsKey(successor)) {
+                        index.put(successor, index.size());
+                        lowLink.put(successor, index.get(successor));
+                        stack.push(successor);
+                        onStack.add(successor);
+                        callStack.push(Map.entry(successor, successors(successor).iterator()));
+                    } else if (onStack.contains(successor)) {
+                        lowLink.put(node, Math.min(lowLink.get(node), index.get(successor)));
+                    }
+                    continue;
+                }
+
+                // All successors visited
+                callStack.pop();
+                if (!callStack.isEmpty()) {
+                    String parent = callStack.peek().getKey();
+                    lowLink.put(parent, Math.min(lowLink.get(parent), lowLink.get(node)));
+                }
+                if (lowLink.get(node).equals(index.get(node))) {
+                    Set<String> component = new LinkedHashSet<>();
+                    String member;
+                    do {
+                        member = stack.pop();
+                        onStack.remove(member);
+                        component.add(member);
+                    } while (!member.equals(node));
+                    if (component.size() > 1 || successors(node).contains(node)) {
+                        cyclicComponents.add(component);
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return if the graph contains at least one cycle
+     */
+    public boolean isCyclic() {
+        return !cyclicComponents.isEmpty();
+    }
+
+    /**
+     * @return the nodes of every cyclic strongly connected component
+     */
+    public List<Set<String>> getCyclicComponents() {
+        return cyclicComponents;
+    }
+
+    /**
+     * @param node name of the node
+     * @return if the node is part of a cycle or reachable from one
+     */
+    public boolean isTainted(String node) {
+        return taintedNodes.contains(node);
+    }
+
+    /**
+     * Find one concrete cycle inside a cyclic component, by a breadth-first search from its first node back to it.
+     *
+     * @param component cyclic component, see {@link #getCyclicComponents()}
+     * @return nodes of the cycle, the first node is repeated at the end
+     */
+    public List<String> getCycle(Set<String> component) {
+        String start = component.iterator().next();
+        Map<String, String> predecessors = new HashMap<>();
+        Deque<String> queue = new ArrayDeque<>();
+        queue.add(start);
+        while (!queue.isEmpty()) {
+            String node = queue.poll();
+            for (String successor : successors(node)) {
+                if (!component.contains(successor)) {
+                    continue;
+                }
+                if (successor.equals(start)) {
+                    LinkedList<String> cycle = new LinkedList<>();
+                    cycle.add(start);
+                    for (String member = node; member != null; member = predecessors.get(member)) {
+                        cycle.addFirst(member);
+                    }
+                    return cycle;
+                }
+                if (!predecessors.containsKey(successor)) {
+                    predecessors.put(successor, node);
+                    queue.add(successor);
+                }
+            }
+        }
+        throw new IllegalStateException("Component is not cyclic");
+    }
+}
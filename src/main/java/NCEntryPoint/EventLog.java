@@ -0,0 +1,236 @@
+import java.io.PrintWriter;
+import java.io.StringWriter;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Process-wide, asynchronous event log replacing the direct console output of the analysis.
+ * <p>
+ * Every event has a level, a type (e.g. "flowBound") and a message, which is only formatted by the background
+ * writer. Logging an event never blocks: it is offered to a bounded ring buffer and dropped if the buffer is full,
+ * the number of dropped events is reported by the writer. Events of the levels below {@link Level#WARN} are written to
+ * stdout, the others to stderr. Remaining events are written when the JVM shuts down.
+ * <p>
+ * The per-flow events are logged with {@link Level#DEBUG}, the default level {@link Level#INFO} only reports the
+ * delays per SGS. {@link Level#OFF} disables the log.
+ */
+public final class EventLog {
+    /**
+     * Levels in increasing severity.
+     */
+    public enum Level {
+        DEBUG, INFO, WARN, ERROR, OFF
+    }
+
+    /**
+     * One logged event.
+     *
+     * @param timestamp creation time [ms since epoch]
+     * @param level     severity
+     * @param type      kind of the event, e.g. "flowBound"
+     * @param format    message as format string, see {@link String#format(String, Object...)}
+     * @param args      arguments of the format string, have to be immutable
+     * @param error     exception to report with its stack trace, null if none
+     */
+    public record Event(long timestamp, Level level, String type, String format, Object[] args, Throwable error) {
+        /**
+         * @return the event as one (or with stack trace multiple) line(s)
+         */
+        public String render() {
+            String line = Instant.ofEpochMilli(timestamp) + " " + level + " " + type + ": " + String.format(format, args);
+            if (error == null) {
+                return line;
+            }
+            StringWriter trace = new StringWriter();
+            error.printStackTrace(new PrintWriter(trace));
+            return line + System.lineSeparator() + trace.toString().stripTrailing();
+        }
+    }
+
+    private static final int CAPACITY = 64 * 1024;
+    private static final BlockingQueue<Event> buffer = new ArrayBlockingQueue<>(CAPACITY);
+    private static final AtomicLong droppedEvents = new AtomicLong();
+    private static final AtomicLong reportedDrops = new AtomicLong();
+    // Events accepted by the buffer and events written by the writer, for flush()
+    private static final AtomicLong acceptedEvents = new AtomicLong();
+    private static final AtomicLong writtenEvents = new AtomicLong();
+    private static volatile Level level = Level.INFO;
+
+    static {
+        Thread writer = new Thread(EventLog::writeEvents, "nc-event-log");
+        writer.setDaemon(true);
+        writer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(EventLog::drain, "nc-event-log-flush"));
+    }
+
+    private EventLog() {
+    }
+
+    /**
+     * @param newLevel lowest level of the logged events, {@link Level#OFF} for disabling the log
+     */
+    public static void setLevel(Level newLevel) {
+        level = newLevel;
+    }
+
+    public static Level getLevel() {
+        return level;
+    }
+
+    /**
+     * @param eventLevel level of interest
+     * @return true if events of the level are logged, e.g. for skipping the preparation of expensive arguments
+     */
+    public static boolean isEnabled(Level eventLevel) {
+        return eventLevel != Level.OFF && eventLevel.ordinal() >= level.ordinal();
+    }
+
+    /**
+     * @return number of events dropped because of a full buffer
+     */
+    public static long getDroppedEvents() {
+        return droppedEvents.get();
+    }
+
+    /**
+     * Log an event, without blocking.
+     *
+     * @param eventLevel level of the event
+     * @param type       kind of the event
+     * @param format     message format, see {@link String#format(String, Object...)}
+     * @param args       immutable arguments of the message
+     */
+    public static void log(Level eventLevel, String type, String format, Object... args) {
+        log(eventLevel, type, null, format, args);
+    }
+
+    /**
+     * Log an event with an exception, without blocking.
+     * For the parameters see {@link #log(Level, String, String, Object...)}
+     *
+     * @param error exception whose stack trace is written with the event
+     */
+    public static void log(Level eventLevel, String type, Throwable error, String format, Object... args) {
+        if (!isEnabled(eventLevel)) {
+            return;
+        }
+        if (buffer.offer(new Event(System.currentTimeMillis(), eventLevel, type, format, args, error))) {
+            acceptedEvents.incrementAndGet();
+        } else {
+            droppedEvents.incrementAndGet();
+        }
+    }
+
+    public static void debug(String type, String format, Object... args) {
+        log(Level.DEBUG, type, format, args);
+    }
+
+    public static void info(String type, String format, Object... args) {
+        log(Level.INFO, type, format, args);
+    }
+
+    public static void warn(String type, String format, Object... args) {
+        log(Level.WARN, type, format, args);
+    }
+
+    public static void error(String type, String format, Object... args) {
+        log(Level.ERROR, type, format, args);
+    }
+
+    /**
+     * Wait until all events logged so far are written, e.g. before reading the console output. Events taken from the
+     * buffer by the writer count as written only once they are printed.
+     *
+     * @param timeout maximum waiting time [ms]
+     * @return true if the events were written in time
+     */
+    public static boolean flush(long timeout) {
+        long deadline = System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(timeout);
+        long logged = acceptedEvents.get();
+        while (writtenEvents.get() < logged) {
+            if (System.nanoTime() > deadline) {
+                return false;
+            }
+            try {
+                Thread.sleep(1);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void writeEvents() {
+        while (true) {
+            try {
+                Event first = buffer.poll(100, TimeUnit.MILLISECONDS);
+                if (first != null) {
+                    List<Event> batch = new ArrayList<>();
+                    batch.add(first);
+                    buffer.drainTo(batch);
+                    write(batch);
+                }
+                reportDrops();
+            } catch (InterruptedException e) {
+                return;
+            } catch (RuntimeException e) {
+                // A broken event (e.g. invalid format) must not stop the writer
+                System.err.println("Event log: " + e);
+            }
+        }
+    }
+
+    private static void drain() {
+        List<Event> batch = new ArrayList<>();
+        buffer.drainTo(batch);
+        write(batch);
+        reportDrops();
+    }
+
+    /**
+     * Write a batch of events with one call per stream.
+     */
+    private static synchronized void write(List<Event> batch) {
+        try {
+            print(batch);
+        } finally {
+            writtenEvents.addAndGet(batch.size());
+        }
+    }
+
+    private static void print(List<Event> batch) {
+        StringBuilder out = new StringBuilder();
+        StringBuilder err = new StringBuilder();
+        for (Event event : batch) {
+            String text;
+            try {
+                text = event.render();
+            } catch (RuntimeException e) {
+                text = event.type() + ": " + event.format() + " (" + e + ")";
+            }
+            (event.level().ordinal() >= Level.WARN.ordinal() ? err : out).append(text).append(System.lineSeparator());
+        }
+        if (out.length() > 0) {
+            System.out.print(out);
+            System.out.flush();
+        }
+        if (err.length() > 0) {
+            System.err.print(err);
+            System.err.flush();
+        }
+    }
+
+    private static void reportDrops() {
+        long dropped = droppedEvents.get();
+        long reported = reportedDrops.getAndSet(dropped);
+        if (dropped > reported) {
+            System.err.printf("Event log: %d events dropped, buffer full %n", dropped - reported);
+        }
+    }
+}
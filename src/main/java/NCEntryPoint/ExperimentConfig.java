@@ -21,15 +21,15 @@ public class ExperimentConfig {
     /**
      * Value of the propagation delay. Is added onto the bound delay in the analysis phase.
      */
-    public final double propagationDelay = 0.5E-6; // 0.5 us, but has to be defined in [s]
+    public double propagationDelay = 0.5E-6; // 0.5 us, but has to be defined in [s]
     /**
      * Maximum packet size in the system. Used for service curve modeling.
      */
-    public final int maxPacketSize = 255; // [Byte]
+    public int maxPacketSize = 255; // [Byte]
     /**
      * Minimum packet size in the system. Used for the definition of WRR.
      */
-    public final int minPacketSize = 84; // [Byte] Minimum Ethernet packet size.
+    public int minPacketSize = 84; // [Byte] Minimum Ethernet packet size.
     /**
      * How the arrival of the flows shall be modeled. Mainly Peak-rate vs TokenBucket.
      * Token-Bucket uses one l_max as bucket size.
@@ -64,22 +64,117 @@ public class ExperimentConfig {
      * Flow quantils, used by DRR. Same notes as for {@link #flowWeights} apply.
      */
     public final int[] flowQuantils = {maxPacketSize, maxPacketSize, maxPacketSize}; // Flow quantils, used by DRR
+    /**
+     * Number of worker threads used for the per-flow analyses. A value of 1 (or lower) runs the analyses serially
+     * on one worker thread.
+     */
+    public int analysisThreads = 1;
+    /**
+     * Wall-clock budget for the analysis of one flow [ms], 0 for no limit. Flows exceeding it are recorded as failed
+     * ({@link FlowFailure#TIMEOUT}). Their analysis can't be stopped, it occupies one of the
+     * {@link #analysisThreads} until it finishes.
+     */
+    public long flowTimeBudget = 0;
+    /**
+     * Stack size of the worker threads analyzing the flows [Byte]. Deep tandems need a large stack.
+     */
+    public long analysisStackSize = 64L * 1024 * 1024;
+    /**
+     * Number of combinations evaluated concurrently by {@link NCEntryPoint#experimentAllCombinations()}.
+     */
+    public int experimentThreads = 1;
+    /**
+     * If the results of {@link NCEntryPoint#calculateNCDelays()} shall be exported as CSV file into the "calcs" folder.
+     */
+    public boolean exportCSV = true;
+    /**
+     * Output format of the exported results, see {@link ResultSink.Format}.
+     */
+    public ResultSink.Format resultFormat = ResultSink.Format.CSV;
+    /**
+     * If the metrics (see {@link AnalysisMetrics}) shall be written next to the exported results.
+     */
+    public boolean exportMetrics = false;
+    /**
+     * If adding or removing an SGS after the network creation shall only re-analyze the SGSs interfering with it.
+     * The delay bounds of all other SGSs are taken from the previous analysis.
+     */
+    public boolean incrementalAnalysis = false;
+    /**
+     * How the turns between the servers are created, see {@link TurnGeneration}.
+     */
+    public TurnGeneration turnGeneration = TurnGeneration.ALL_ADJACENT;
+    /**
+     * If the flows sharing the same path and priority shall be aggregated into one macro-flow, whose arrival curve is
+     * the sum of the arrival curves of its members. The delay bound of the macro-flow is used for every member.
+     * <p>
+     * Only applied with FIFO {@link #multiplexing} and without SP scheduling: under arbitrary multiplexing (which SP
+     * uses for all priorities but the highest) the bound of a macro-flow is no bound of its members, the flows are
+     * analyzed separately then.
+     */
+    public boolean aggregateFlows = false;
+    /**
+     * If the analysis shall only answer whether all deadlines hold: the SGSs are analyzed in the order of their
+     * estimated criticality and the analysis stops at the first torn deadline. The delays of the remaining SGSs are
+     * not computed.
+     */
+    public boolean feasibilityOnly = false;
+
+    /**
+     * Create an independent copy of this configuration, e.g. for an {@link AnalysisSession}.
+     *
+     * @return copy of the configuration
+     */
+    public ExperimentConfig copy() {
+        ExperimentConfig copy = new ExperimentConfig();
+        copy.propagationDelay = propagationDelay;
+        copy.maxPacketSize = maxPacketSize;
+        copy.minPacketSize = minPacketSize;
+        copy.multiplexing = multiplexing;
+        copy.arrivalBoundMethod = arrivalBoundMethod;
+        copy.ncAnalysisType = ncAnalysisType;
+        copy.schedulingPolicy = schedulingPolicy;
+        copy.flowWeights = flowWeights.clone();
+        System.arraycopy(flowQuantils, 0, copy.flowQuantils, 0, flowQuantils.length);
+        copy.analysisThreads = analysisThreads;
+        copy.experimentThreads = experimentThreads;
+        copy.flowTimeBudget = flowTimeBudget;
+        copy.analysisStackSize = analysisStackSize;
+        copy.exportCSV = exportCSV;
+        copy.resultFormat = resultFormat;
+        copy.exportMetrics = exportMetrics;
+        copy.incrementalAnalysis = incrementalAnalysis;
+        copy.turnGeneration = turnGeneration;
+        copy.aggregateFlows = aggregateFlows;
+        copy.feasibilityOnly = feasibilityOnly;
+        return copy;
+    }
 
 
     /**
-     * Write the current experiment configuration onto the Console
+     * Log the current experiment configuration as one {@link EventLog.Level#DEBUG} event
      */
     public void outputConfig() {
-        System.out.println("Use given link delay: " + useGivenLinkDelay);
-        System.out.println("Packetizer included: " + usePacketizer + " (" + maxPacketSize + " Byte)");
-        System.out.println("Propagation delay: " + propagationDelay);
-        System.out.println("Arrival curve type: " + arrivalCurveType);
-        System.out.println("Multiplexing: " + multiplexing);
-        System.out.println("Scheduling policy: " + schedulingPolicy);
-        System.out.println("Flow weights: " + Arrays.toString(flowWeights));
-        System.out.println("Flow quantils: " + Arrays.toString(flowQuantils));
-        System.out.println("Arrival bounding method: " + arrivalBoundMethod);
-        System.out.println("NC Analysis type: " + ncAnalysisType);
+        if (!EventLog.isEnabled(EventLog.Level.DEBUG)) {
+            return;
+        }
+        String config = String.join(System.lineSeparator(),
+                "Use given link delay: " + useGivenLinkDelay,
+                "Packetizer included: " + usePacketizer + " (" + maxPacketSize + " Byte)",
+                "Propagation delay: " + propagationDelay,
+                "Arrival curve type: " + arrivalCurveType,
+                "Multiplexing: " + multiplexing,
+                "Scheduling policy: " + schedulingPolicy,
+                "Flow weights: " + Arrays.toString(flowWeights),
+                "Flow quantils: " + Arrays.toString(flowQuantils),
+                "Arrival bounding method: " + arrivalBoundMethod,
+                "NC Analysis type: " + ncAnalysisType,
+                "Analysis threads: " + analysisThreads,
+                "Flow time budget: " + (flowTimeBudget > 0 ? flowTimeBudget + "ms" : "unlimited"),
+                "Turn generation: " + turnGeneration,
+                "Flow aggregation: " + aggregateFlows,
+                "Feasibility only: " + feasibilityOnly);
+        EventLog.debug("config", "%n%s", config);
     }
 
     /**
@@ -102,11 +197,33 @@ public class ExperimentConfig {
         buffer.add(String.valueOf(ncAnalysisType));
     }
 
+    /**
+     * Write every parameter which influences the analysis result into a buffer, e.g. for identifying results.
+     * This includes every parameter of the server graph construction, a new one has to be added here as well.
+     * Contrary to {@link #writeConfiginBuffer(List)}, the output is not meant to be human-readable.
+     *
+     * @param buffer Buffer to write the parameters into
+     */
+    public void writeAnalysisKeyInBuffer(List<String> buffer) {
+        writeConfiginBuffer(buffer);
+        buffer.add(String.valueOf(turnGeneration));
+        buffer.add(String.valueOf(aggregateFlows));
+        buffer.add(String.valueOf(feasibilityOnly));
+    }
+
     /**
      * Function used to insert the parameter names in the front of the experimentLog.
      * @param experimentLog 2D experiment log list in which the results are already included.
      */
     public void insertConfigNamesInFront(List<List<String>> experimentLog){
+        experimentLog.add(0, getConfigNames());
+    }
+
+    /**
+     * Names of the parameters written by {@link #writeConfiginBuffer(List)}, in the same order.
+     * @return list of the parameter names
+     */
+    public List<String> getConfigNames(){
         List<String> exp_paras = new ArrayList<>();
 
         exp_paras.add("Use given link delay:" );
@@ -122,7 +239,7 @@ public class ExperimentConfig {
         exp_paras.add("Arrival bounding method:");
         exp_paras.add("NC analysis method:");
 
-        experimentLog.add(0, exp_paras);
+        return exp_paras;
     }
 
     /**
@@ -132,6 +249,18 @@ public class ExperimentConfig {
         TokenBucket, PeakArrivalRate
     }
 
+    /**
+     * Creation of the turns of the server graph.
+     * <ul>
+     * <li> ALL_ADJACENT - every pair of connected edges, for every priority
+     * <li> FLOW_PATHS - only the hops of the SGS paths, only for the priorities carrying flows of the SGS. Results in
+     *      the minimal server graph for the flows, without the cyclic dependencies of unused turns.
+     * </ul>
+     */
+    enum TurnGeneration {
+        ALL_ADJACENT, FLOW_PATHS
+    }
+
     /**
      * Used scheduling policy for multiple priority case.
      * 'None' shall be used if no scheduler is desired.
@@ -0,0 +1,25 @@
+/**
+ * Reason why no delay bound could be computed for a flow.
+ */
+public enum FlowFailure {
+    /**
+     * The DiscoDNC analysis threw an exception, e.g. PMOO with FIFO multiplexing.
+     */
+    ANALYSIS_ERROR,
+    /**
+     * The analysis exceeded the time budget per flow, see {@link ExperimentConfig#flowTimeBudget}.
+     */
+    TIMEOUT,
+    /**
+     * The analysis overflowed the stack of its worker thread. Possible reason: cyclic dependency in the network.
+     */
+    STACK_OVERFLOW,
+    /**
+     * The flow traverses a cyclic dependency or a server downstream of one, the analysis was not started.
+     */
+    CYCLIC_DEPENDENCY,
+    /**
+     * The analysis run was cancelled before the flow was finished.
+     */
+    CANCELLED
+}
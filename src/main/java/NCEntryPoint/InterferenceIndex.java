@@ -0,0 +1,113 @@
+import java.util.*;
+
+/**
+ * Keeps track of the edges every SGS traverses and of the SGSs using every edge.
+ * <p>
+ * Two SGSs interfere if they share an edge, either directly or via a chain of other SGSs (the cross-traffic of a
+ * flow is bounded using the cross-traffic along its own path). SGSs of different interference sets do not influence
+ * each other's delay bounds, independent of the priorities and the scheduling policy.
+ */
+public class InterferenceIndex {
+    private final TopologyIndex topology;
+    private final Map<SGService, Set<Edge>> serviceEdges = new HashMap<>();
+    private final Map<Edge, Set<SGService>> edgeServices = new HashMap<>();
+
+    /**
+     * @param topology index used to resolve the paths of the SGSs
+     */
+    public InterferenceIndex(TopologyIndex topology) {
+        this.topology = topology;
+    }
+
+    /**
+     * Add an SGS with all its paths to the index.
+     *
+     * @param service SGS to add
+     */
+    public void addService(SGService service) {
+        Set<Edge> edges = new LinkedHashSet<>();
+        for (List<String> path : service.getMultipath()) {
+            edges.addAll(topology.resolvePath(path));
+        }
+        serviceEdges.put(service, edges);
+        for (Edge edge : edges) {
+            edgeServices.computeIfAbsent(edge, k -> new LinkedHashSet<>()).add(service);
+        }
+    }
+
+    /**
+     * Remove an SGS from the index.
+     *
+     * @param service SGS to remove
+     * @return the edges which were used by the SGS
+     */
+    public Set<Edge> removeService(SGService service) {
+        Set<Edge> edges = serviceEdges.remove(service);
+        if (edges == null) {
+            return Collections.emptySet();
+        }
+        for (Edge edge : edges) {
+            Set<SGService> services = edgeServices.get(edge);
+            services.remove(service);
+            if (services.isEmpty()) {
+                edgeServices.remove(edge);
+            }
+        }
+        return edges;
+    }
+
+    /**
+     * @param service SGS of interest
+     * @return all edges traversed by the SGS, empty if the SGS is not indexed
+     */
+    public Set<Edge> getEdges(SGService service) {
+        return serviceEdges.getOrDefault(service, Collections.emptySet());
+    }
+
+    /**
+     * @param edge edge of interest
+     * @return all SGSs traversing the edge
+     */
+    public Set<SGService> getServices(Edge edge) {
+        return edgeServices.getOrDefault(edge, Collections.emptySet());
+    }
+
+    /**
+     * @param service SGS of interest
+     * @return all other SGSs sharing at least one edge with the SGS
+     */
+    public Set<SGService> getDirectInterferers(SGService service) {
+        Set<SGService> interferers = new LinkedHashSet<>();
+        for (Edge edge : getEdges(service)) {
+            interferers.addAll(getServices(edge));
+        }
+        interferers.remove(service);
+        return interferers;
+    }
+
+    /**
+     * Collect the interference set of some edges: every SGS using one of the edges plus, transitively, every SGS
+     * sharing an edge with an already collected SGS. The SGSs are returned in breadth-first order, i.e. SGSs using
+     * the given edges first.
+     *
+     * @param seedEdges edges to start from
+     * @return the interfering SGSs
+     */
+    public Set<SGService> getInterferenceSet(Collection<Edge> seedEdges) {
+        Set<SGService> visited = new LinkedHashSet<>();
+        Set<Edge> visitedEdges = new LinkedHashSet<>(seedEdges);
+        Deque<Edge> queue = new ArrayDeque<>(visitedEdges);
+        while (!queue.isEmpty()) {
+            for (SGService service : getServices(queue.poll())) {
+                if (visited.add(service)) {
+                    for (Edge edge : getEdges(service)) {
+                        if (visitedEdges.add(edge)) {
+                            queue.add(edge);
+                        }
+                    }
+                }
+            }
+        }
+        return visited;
+    }
+}
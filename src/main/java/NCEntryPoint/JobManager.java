@@ -0,0 +1,160 @@
+import java.util.*;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Runs {@link AnalysisJob}s in the background and keeps them for polling until they are removed.
+ * <p>
+ * The jobs of one manager run one after another in the order of submission. They are executed by a bounded pool of
+ * daemon threads, which can be shared among managers (see {@link SessionManager}): a job is handed to the pool only
+ * once the previous job of its manager is finished. Waiting jobs don't occupy a thread, so any number of jobs can be
+ * outstanding and the jobs of one manager never block the jobs of the others.
+ * All methods are thread-safe.
+ */
+public class JobManager {
+    private static final AtomicLong threadCounter = new AtomicLong();
+
+    private final ExecutorService executor;
+    private final Map<String, AnalysisJob> jobs = new ConcurrentHashMap<>();
+    private final AtomicLong jobCounter = new AtomicLong();
+    // Jobs waiting for the running job of this manager, guarded by itself
+    private final Deque<QueuedJob> waitingJobs = new ArrayDeque<>();
+    private boolean jobActive = false;
+
+    /**
+     * @param executor executor running the jobs, see {@link #createExecutor(int)}
+     */
+    public JobManager(ExecutorService executor) {
+        this.executor = executor;
+    }
+
+    /**
+     * @param threads maximum number of jobs running concurrently
+     * @return executor with a fixed number of daemon threads and an unbounded queue
+     */
+    public static ExecutorService createExecutor(int threads) {
+        return Executors.newFixedThreadPool(Math.max(1, threads), runnable -> {
+            Thread thread = new Thread(runnable, "nc-job-" + threadCounter.incrementAndGet());
+            // Jobs must not keep the JVM alive
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Queue a job, it is started after the jobs submitted before.
+     *
+     * @param type      description of the job, e.g. "analysis"
+     * @param task      task of the job, gets the job for reporting progress and returns its result
+     * @param canceller cancels the job while running
+     * @return the queued job
+     */
+    public AnalysisJob submit(String type, JobTask task, Consumer<AnalysisJob> canceller) {
+        String jobId = "job-" + jobCounter.incrementAndGet();
+        AnalysisJob job = new AnalysisJob(jobId, type, canceller);
+        jobs.put(jobId, job);
+        QueuedJob queued = new QueuedJob(job, task);
+        synchronized (waitingJobs) {
+            if (jobActive) {
+                waitingJobs.add(queued);
+                return job;
+            }
+            jobActive = true;
+        }
+        dispatch(queued);
+        return job;
+    }
+
+    /**
+     * Hand a job to the pool, the next waiting job follows once it is finished.
+     */
+    private void dispatch(QueuedJob queued) {
+        AnalysisJob job = queued.job();
+        try {
+            executor.execute(() -> {
+                try {
+                    job.run(() -> queued.task().run(job));
+                } finally {
+                    dispatchNext();
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            job.cancel();
+            dispatchNext();
+        }
+    }
+
+    private void dispatchNext() {
+        QueuedJob next;
+        synchronized (waitingJobs) {
+            // Jobs cancelled while waiting are skipped
+            do {
+                next = waitingJobs.poll();
+            } while (next != null && next.job().isCancelled());
+            if (next == null) {
+                jobActive = false;
+                return;
+            }
+        }
+        dispatch(next);
+    }
+
+    /**
+     * @param jobId id of the job
+     * @return the job
+     * @throws NoSuchElementException if no job with the id exists
+     */
+    public AnalysisJob getJob(String jobId) {
+        AnalysisJob job = jobs.get(jobId);
+        if (job == null) {
+            throw new NoSuchElementException("No job " + jobId);
+        }
+        return job;
+    }
+
+    /**
+     * @return ids of all jobs which were not removed
+     */
+    public List<String> getJobIds() {
+        return new ArrayList<>(jobs.keySet());
+    }
+
+    /**
+     * Forget a job, e.g. after fetching its result. A job which is not finished is cancelled.
+     *
+     * @param jobId id of the job
+     * @return false if no job with the id exists
+     */
+    public boolean removeJob(String jobId) {
+        AnalysisJob job = jobs.remove(jobId);
+        if (job == null) {
+            return false;
+        }
+        job.cancel();
+        return true;
+    }
+
+    /**
+     * Cancel and remove all jobs.
+     */
+    public void removeAll() {
+        jobs.keySet().forEach(this::removeJob);
+    }
+
+    private record QueuedJob(AnalysisJob job, JobTask task) {
+    }
+
+    /**
+     * Task of a job.
+     */
+    @FunctionalInterface
+    public interface JobTask {
+        /**
+         * @param job job executing the task, for reporting progress and partial results
+         * @return result of the job
+         * @throws Exception if the job failed
+         */
+        Object run(AnalysisJob job) throws Exception;
+    }
+}
@@ -0,0 +1,170 @@
+import org.networkcalculus.dnc.AnalysisConfig;
+import org.networkcalculus.dnc.tandem.TandemAnalysis;
+
+import java.io.PrintStream;
+import java.util.*;
+
+/**
+ * Benchmark harness for the hot paths of the network construction and the NC analysis:
+ * {@link AnalysisSession#createNCNetwork()}, the turn creation, the flow creation and the delay calculation for every
+ * combination of {@link TandemAnalysis.Analyses} and {@link ExperimentConfig.SchedulingPolicy}.
+ * <p>
+ * Every benchmark is run on reproducible synthetic grids, parametrized by the network size (number of hubs) and the
+ * number of flows. Each measurement is preceded by warm-up iterations, the mean, minimum and maximum of the measured
+ * iterations is reported in [ms] as semicolon separated table.
+ * <p>
+ * Usage: {@code NCBenchmark [hubs,hubs,...] [flows,flows,...] [warmup iterations] [measured iterations] [seed]
+ * [RADIAL|RING|MESH]}
+ */
+public class NCBenchmark {
+    private static final int DEVICES_PER_HUB = 4;
+
+    private final List<Edge> edgeList;
+    private final TopologyIndex topology;
+    private final ServiceCurveCache curveCache = new ServiceCurveCache(4096);
+    private final List<SGService> sgServices;
+    private final int warmup;
+    private final int iterations;
+
+    /**
+     * Create the benchmark network with the {@link TopologyGenerator}: {@value #DEVICES_PER_HUB} field devices per hub
+     * and one control server. Every SGS consists of one flow from a random field device to the control server.
+     *
+     * @param type       topology type of the network
+     * @param hubs       number of hubs
+     * @param flows      number of SGSs (one flow each)
+     * @param seed       seed of the random generator
+     * @param warmup     number of warm-up iterations per benchmark
+     * @param iterations number of measured iterations per benchmark
+     */
+    public NCBenchmark(TopologyGenerator.TopologyType type, int hubs, int flows, long seed, int warmup, int iterations) {
+        this.warmup = warmup;
+        this.iterations = iterations;
+        NCEntryPoint entryPoint = new NCEntryPoint();
+        TopologyGenerator generator = new TopologyGenerator(seed);
+        generator.setMaxDevicesPerService(1);
+        generator.generate(entryPoint, type, hubs * DEVICES_PER_HUB, hubs, 1, flows);
+        edgeList = entryPoint.getEdgeList();
+        topology = entryPoint.getTopology();
+        sgServices = entryPoint.getSGServices();
+    }
+
+    public static void main(String[] args) {
+        int[] hubCounts = args.length > 0 ? parseList(args[0]) : new int[]{8, 32};
+        int[] flowCounts = args.length > 1 ? parseList(args[1]) : new int[]{16, 64};
+        int warmup = args.length > 2 ? Integer.parseInt(args[2]) : 3;
+        int iterations = args.length > 3 ? Integer.parseInt(args[3]) : 5;
+        long seed = args.length > 4 ? Long.parseLong(args[4]) : 42;
+        TopologyGenerator.TopologyType type = args.length > 5 ? TopologyGenerator.TopologyType.valueOf(args[5].toUpperCase())
+                : TopologyGenerator.TopologyType.RING;
+
+        // The analysis output is not part of the measurement
+        EventLog.setLevel(EventLog.Level.OFF);
+        PrintStream out = System.out;
+        out.println("Benchmark;Hubs;Flows;Mean [ms];Min [ms];Max [ms]");
+        for (int hubs : hubCounts) {
+            for (int flows : flowCounts) {
+                NCBenchmark benchmark = new NCBenchmark(type, hubs, flows, seed, warmup, iterations);
+                benchmark.runAll(out, hubs, flows);
+            }
+        }
+    }
+
+    /**
+     * Run every benchmark on the network of this instance and print one table row per benchmark.
+     *
+     * @param out   stream to print the results to
+     * @param hubs  number of hubs, only used for the output
+     * @param flows number of flows, only used for the output
+     */
+    public void runAll(PrintStream out, int hubs, int flows) {
+        ExperimentConfig baseConfig = new ExperimentConfig();
+        report(out, "createNCNetwork", hubs, flows, measure(() -> {
+            AnalysisSession session = newSession(baseConfig);
+            return () -> session.createNCNetwork();
+        }));
+        report(out, "addTurnsToSG", hubs, flows, measure(() -> {
+            AnalysisSession session = newSession(baseConfig);
+            session.createServers();
+            return session::createTurns;
+        }));
+        ExperimentConfig flowPathsConfig = baseConfig.copy();
+        flowPathsConfig.turnGeneration = ExperimentConfig.TurnGeneration.FLOW_PATHS;
+        report(out, "createNCNetwork-FLOW_PATHS", hubs, flows, measure(() -> {
+            AnalysisSession session = newSession(flowPathsConfig);
+            return () -> session.createNCNetwork();
+        }));
+        report(out, "addTurnsToSG-FLOW_PATHS", hubs, flows, measure(() -> {
+            AnalysisSession session = newSession(flowPathsConfig);
+            session.createServers();
+            return session::createTurns;
+        }));
+        report(out, "addFlowsToSG", hubs, flows, measure(() -> {
+            AnalysisSession session = newSession(baseConfig);
+            session.createServers();
+            session.createTurns();
+            return session::createFlows;
+        }));
+
+        for (TandemAnalysis.Analyses analysis : TandemAnalysis.Analyses.values()) {
+            for (ExperimentConfig.SchedulingPolicy policy : ExperimentConfig.SchedulingPolicy.values()) {
+                ExperimentConfig config = baseConfig.copy();
+                config.ncAnalysisType = analysis;
+                config.schedulingPolicy = policy;
+                // PMOO & TMA don't support FIFO multiplexing
+                if (analysis == TandemAnalysis.Analyses.PMOO || analysis == TandemAnalysis.Analyses.TMA) {
+                    config.multiplexing = AnalysisConfig.Multiplexing.ARBITRARY;
+                }
+                report(out, "calculateNCDelays-" + analysis + "-" + policy, hubs, flows, measure(() -> {
+                    AnalysisSession session = newSession(config);
+                    session.createNCNetwork();
+                    return session::calculateNCResult;
+                }));
+            }
+        }
+    }
+
+    private AnalysisSession newSession(ExperimentConfig config) {
+        return new AnalysisSession(edgeList, topology, curveCache, sgServices, config.copy());
+    }
+
+    /**
+     * Measure one benchmark. The setup is executed before every iteration and not measured.
+     *
+     * @param setup prepares one iteration and returns the code to be measured
+     * @return measured durations [ns]
+     */
+    private long[] measure(BenchmarkSetup setup) {
+        long[] durations = new long[iterations];
+        for (int i = 0; i < warmup + iterations; i++) {
+            Runnable benchmark = setup.prepare();
+            long start = System.nanoTime();
+            benchmark.run();
+            long duration = System.nanoTime() - start;
+            if (i >= warmup) {
+                durations[i - warmup] = duration;
+            }
+        }
+        return durations;
+    }
+
+    private static void report(PrintStream out, String name, int hubs, int flows, long[] durations) {
+        LongSummaryStatistics statistics = Arrays.stream(durations).summaryStatistics();
+        out.printf("%s;%d;%d;%.3f;%.3f;%.3f%n", name, hubs, flows, statistics.getAverage() / 1E6,
+                statistics.getMin() / 1E6, statistics.getMax() / 1E6);
+    }
+
+    private static int[] parseList(String list) {
+        return Arrays.stream(list.split(",")).mapToInt(Integer::parseInt).toArray();
+    }
+
+    /**
+     * Setup of one benchmark iteration.
+     */
+    private interface BenchmarkSetup {
+        /**
+         * @return the code to be measured
+         */
+        Runnable prepare();
+    }
+}
@@ -1,178 +1,73 @@
 import org.networkcalculus.dnc.AnalysisConfig;
-import org.networkcalculus.dnc.curves.ArrivalCurve;
-import org.networkcalculus.dnc.curves.Curve;
-import org.networkcalculus.dnc.curves.ServiceCurve;
-import org.networkcalculus.dnc.network.server_graph.Flow;
-import org.networkcalculus.dnc.network.server_graph.Server;
-import org.networkcalculus.dnc.network.server_graph.ServerGraph;
 import org.networkcalculus.dnc.tandem.TandemAnalysis;
-import org.networkcalculus.dnc.tandem.analyses.TandemMatchingAnalysis;
 import py4j.GatewayServer;
 
-import java.io.File;
-import java.io.FileWriter;
-import java.io.IOException;
-import java.text.SimpleDateFormat;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.DoubleBuffer;
+import java.nio.IntBuffer;
 import java.util.*;
-import java.util.stream.Collectors;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
 
 /**
  * Order of calls to make for a fully functioning NC calculation:
  * <p><ol>
  * <li> {@link #addEdge(String, String, double, double)} [multiple times] - Add your edges of the network to the Servergraph (Edge = Output-link of one hop)
+ *      (or {@link #addEdges(String, String, byte[], byte[])} for adding all edges at once)
  * <li> {@link #addSGService(String, String, int, int, double, List, int)} [multiple times] - Add all the SGS that will use the network. Flows are aggregated in here.
+ *      (or {@link #addSGServices(String, String, byte[], byte[], byte[], byte[], byte[], byte[], String)} for adding all SGS at once)
  * <li> {@link #createNCNetwork()} [once] - Create the final Servergraph with every connection in it.
  * <li> {@link #calculateNCDelays()} - Call this function for calculating the final delays per flow.
+ *      (or {@link #calculateNCDelaysResult()} for retrieving the delays in memory)
  * </ol>
+ * The public methods are synchronized, so concurrent Py4J threads can't interleave their calls. Only
+ * {@link #cancelAnalysis()}, the statistics getters, {@link #setLogLevel(String)} and the job methods (e.g.
+ * {@link #submitAnalysis()}) are available while another call is running.
+ * Multiple independent entry points are served by {@link SessionManager}.
  */
 
 public class NCEntryPoint {
     private final List<Edge> edgeList = new ArrayList<>();
+    private final TopologyIndex topology = new TopologyIndex();
+    private final ServiceCurveCache curveCache;
     private final ExperimentConfig experimentConfig = new ExperimentConfig();
-    private List<SGService> sgServices = new ArrayList<>();
-    private ServerGraph serverGraph;
+    private final List<SGService> sgServices = new ArrayList<>();
+    private AnalysisSession session;
+    private final ResultCache resultCache = new ResultCache(32, 64L * 1024 * 1024);
+    private final AnalysisMetrics metrics = new AnalysisMetrics();
+    // Sessions currently analyzing, for cancelling them
+    private final Set<AnalysisSession> runningSessions = ConcurrentHashMap.newKeySet();
+    private volatile boolean cancelRequested = false;
+    private final JobManager jobManager;
+    // Job executing the current call, if called by a job
+    private volatile AnalysisJob currentJob = null;
 
     public NCEntryPoint() {
+        this(new ServiceCurveCache(4096), new JobManager(JobManager.createExecutor(Runtime.getRuntime().availableProcessors())));
     }
 
     /**
-     * Retrieve all connected neighbors of a specific edge
-     *
-     * @param currEdge edge, for which the neighbors shall be found
-     * @param edgeList list of edges to search in.
-     * @return list of found neighbors.
-     */
-    private static List<Edge> getAllConnectingEdges(Edge currEdge, Collection<Edge> edgeList) {
-        List<Edge> targetEdgeList;
-        HashSet<String> currEdgeNodes = new HashSet<>(currEdge.getNodes());
-        /*
-         * Check if the edges are connected. They are connected if the last node in an edge is the first node in the second node
-         * e.g. R10/R20 & R20/R30
-         * The first two comparisons: Check for connecting node
-         * The third line: Check that the two compared edges do not concern the same node pairs
-         *                 (aka are the same edge but maybe different direction --> R10/R20 & R20/R10)
-         */
-        targetEdgeList = edgeList.stream()
-                .filter(edge -> (edge.getNodes().get(0).equals(currEdge.getNodes().get(1)) ||
-                                 edge.getNodes().get(1).equals(currEdge.getNodes().get(0)))
-                                && !currEdgeNodes.containsAll(edge.getNodes()))
-                .collect(Collectors.toList());
-        return targetEdgeList;
-    }
-
-    /**
-     * Create noPrios service curves for one edge, according to the scheduling
-     * and other configuration parameters defined in expConfig
-     *
-     * @param edge      Edge for which the service curves shall be created. Needed for bitrate
-     * @param expConfig Experiment config to use, including priorities and scheduling parameters
-     * @param noPrios   number of priority service curves shall be created
-     * @return List of Service curves in increasing priority order
-     */
-    private static List<ServiceCurve> createServiceCurves(Edge edge, ExperimentConfig expConfig, int noPrios) {
-        // Define base service curve for this server
-        double rate;
-        double latency = 0;
-        List<ServiceCurve> serviceCurves = new ArrayList<>();
-
-        switch (expConfig.schedulingPolicy) {
-            case None -> serviceCurves = createSimpleServiceCurves(edge, expConfig, noPrios);
-            case SP -> {
-                // The strict priority service curve is the link-service curve - the cross-traffic arrival
-                // ==> The cross-traffic subtraction is done at other ends
-                rate = edge.getBitrate();
-                if (expConfig.usePacketizer) {
-                    //  The packetized SP is b_SP = b - a - l_max [- l_max]
-                    //  One (- l_max) because we have to wait for the lower priority packet which gets served
-                    //  --> not for the lowest priority
-                    //  And one (- l_max) to account for the packetizer (transmission delay)
-                    latency = expConfig.maxPacketSize / edge.getBitrate();
-                }
-                // latency is 0 for non-packetized SP
-                for (int i = 0; i < noPrios - 1; i++) {
-                    // For all priorities unequal the lowest priority, b = b - a - l_max*2
-                    serviceCurves.add(Curve.getFactory().createRateLatency(rate, 2 * latency));
-                }
-                // For the lowest priority it would only be one time l_max (transmission delay)
-                serviceCurves.add(Curve.getFactory().createRateLatency(rate, latency));
-            }
-            case WFQ -> {
-                if (expConfig.usePacketizer) {   // PGPS aka WFQ
-                    // 1 * l_max for waiting to be scheduled + 1 * l_max for packetizer
-                    latency = (2 * expConfig.maxPacketSize) / edge.getBitrate();
-                }
-                // From here it is simple GPS, PGPS just accounts for the latency component
-                // GPS just splits the link-rate among the priorities.
-                // Weights according to the experimentConfiguration
-
-                // Calculate the sum of all flow weights for percentage calculation
-                double sumWeights = Arrays.stream(expConfig.flowWeights).sum();
-                // Iterate over every flow priority and define service curve as w_i /Ew * r
-                for (int i = 0; i < noPrios; i++) {
-                    rate = (expConfig.flowWeights[i] / sumWeights) * edge.getBitrate();
-                    serviceCurves.add(Curve.getFactory().createRateLatency(rate, latency));
-                }
-            }
-            case DRR -> {
-                // Deficit Round Robin is always packetized
-                // see eq. 3.34
-                int l_max = expConfig.maxPacketSize;
-                int L = l_max * noPrios;
-                double F = Arrays.stream(expConfig.flowQuantils).sum();
-                double C = edge.getBitrate();
-                for (int i = 0; i < noPrios; i++) {
-                    int Q_i = expConfig.flowQuantils[i];
-
-                    // added Q_i/Q_i simplification into eq 3.34 for this formulation.
-                    latency = ((Q_i * (L - l_max)) + ((F - Q_i) * (Q_i + l_max)) + (Q_i * l_max)) / (Q_i * C);
-                    rate = (Q_i / F) * C;
-                    serviceCurves.add(Curve.getFactory().createRateLatency(rate, latency));
-                }
-            }
-            case WRR -> {
-                // Weighted Round Robin is always packetized, there is no unpacketized version!
-                // see Eq. 3.32
-                int l_min = expConfig.minPacketSize;
-                int l_max = expConfig.maxPacketSize;
-                for (int i = 0; i < noPrios; i++) {
-                    int w_i = expConfig.flowWeights[i];
-                    double q_i = w_i * l_min;
-                    double Q_i = (Arrays.stream(expConfig.flowWeights).sum() - w_i) * l_max;
-
-                    latency = (Q_i + l_max) / edge.getBitrate();
-                    rate = (q_i / (q_i + Q_i)) * edge.getBitrate();
-                    serviceCurves.add(Curve.getFactory().createRateLatency(rate, latency));
-                }
-            }
-        }
-        return serviceCurves;
+     * @param curveCache cache providing the service curves, can be shared with other entry points (see
+     *                   {@link SessionManager})
+     * @param jobManager manager running the jobs of this entry point, its executor can be shared
+     */
+    NCEntryPoint(ServiceCurveCache curveCache, JobManager jobManager) {
+        this.curveCache = curveCache;
+        this.jobManager = jobManager;
     }
 
     /**
-     * Create noPrios simple service curves for one edge, not taking any scheduling algorithm into account
-     *
-     * @param edge      Edge for which the service curves shall be created. Needed for bitrate
-     * @param expConfig Experiment config to use, including priorities and scheduling parameters
-     * @param noPrios   number of service curves which shall be created
-     * @return List of Service curves in increasing priority order
+     * Cancel all jobs and the running analysis, e.g. before discarding this entry point.
      */
-    private static List<ServiceCurve> createSimpleServiceCurves(Edge edge, ExperimentConfig expConfig, int noPrios) {
-        double latency = 0;
-        List<ServiceCurve> serviceCurves = new ArrayList<>();
-        // model the link simply as a combination of the packet burst + link rate
-        if (expConfig.usePacketizer) {
-            latency = expConfig.maxPacketSize / edge.getBitrate();
-        }
-
-        if (expConfig.useGivenLinkDelay) {
-            //TODO: Talk with Kai-Steffen if we should delete that
-            latency += edge.getLatency();
-        }
-        double rate = edge.getBitrate();
-        for (int i = 0; i < noPrios; i++) {
-            serviceCurves.add(Curve.getFactory().createRateLatency(rate, latency));
-        }
-        return serviceCurves;
+    void close() {
+        jobManager.removeAll();
+        cancelAnalysis();
     }
 
     /**
@@ -205,16 +100,24 @@ public class NCEntryPoint {
         entryPoint.calculateNCDelays();
     }
 
+    /**
+     * Start the Py4J gateway. By default, the entry point is a {@link SessionManager} serving multiple clients, with
+     * "--single-session" it is one NCEntryPoint shared by all clients (legacy mode).
+     *
+     * @param args command line arguments
+     */
     public static void main(String[] args) {
-        GatewayServer gatewayServer = new GatewayServer(new NCEntryPoint());
+        boolean singleSession = Arrays.asList(args).contains("--single-session");
+        GatewayServer gatewayServer = new GatewayServer(singleSession ? new NCEntryPoint() : new SessionManager());
         gatewayServer.start();
-        System.out.println("Gateway Server Started");
+        System.out.println("Gateway Server Started" + (singleSession ? " (single session)" : ""));
     }
 
     //TODO: Check for better Exception handling (here "sg.addTurn()" throws exception if servers not present etc.)
 
     /**
      * Retrieves an edge out of a list, defined by its node pair.
+     * Scans the whole list, use {@link TopologyIndex#findEdge(String, String)} for repeated lookups.
      *
      * @param listEdge edge list to search in
      * @param nodes    node collection to use for comparison with every edge.
@@ -235,9 +138,10 @@ public class NCEntryPoint {
      * @param latency link delay [s]
      */
     @SuppressWarnings("unused")
-    public void addEdge(String node1, String node2, double bitrate, double latency) {
-        Edge newEdge = new Edge(node1, node2, bitrate, latency);
-        edgeList.add(newEdge);
+    public synchronized void addEdge(String node1, String node2, double bitrate, double latency) {
+        long start = System.nanoTime();
+        putEdge(new Edge(node1, node2, bitrate, latency));
+        metrics.recordPhase("edgeIngestion", System.nanoTime() - start);
     }
 
     /**
@@ -252,7 +156,214 @@ public class NCEntryPoint {
      * @param priority    Priority of the SGS, the highest priority is 0
      */
     @SuppressWarnings("unused")
-    public void addSGService(String SGSName, String servername, int bucket_size, int bitrate, double deadline, List<List<String>> multipath, int priority) {
+    public synchronized void addSGService(String SGSName, String servername, int bucket_size, int bitrate, double deadline, List<List<String>> multipath, int priority) {
+        long start = System.nanoTime();
+        putService(new SGService(SGSName, servername, bucket_size, bitrate, deadline, multipath, toFlowPriority(priority)));
+        metrics.recordPhase("serviceIngestion", System.nanoTime() - start);
+    }
+
+    /**
+     * Check if an SGS can be added to the network created by {@link #createNCNetwork()} without tearing a deadline.
+     * Only the SGSs interfering with it are analyzed, the network and the SGS list stay unchanged.
+     * To be called via Python, for the parameters see {@link #addSGService(String, String, int, int, double, List, int)}.
+     *
+     * @return accept/reject with the SGSs whose deadlines would be torn
+     */
+    @SuppressWarnings("unused")
+    public synchronized AdmissionDecision checkAdmission(String SGSName, String servername, int bucket_size, int bitrate, double deadline, List<List<String>> multipath, int priority) {
+        SGService candidate = new SGService(SGSName, servername, bucket_size, bitrate, deadline, multipath, toFlowPriority(priority));
+        AdmissionDecision decision = getSession().checkAdmission(candidate);
+        EventLog.info("admission", "%s", decision.toString());
+        return decision;
+    }
+
+    /**
+     * Remove an SGS from the list. To be called via Python.
+     * Without incremental mode (see {@link #setIncrementalMode(boolean)}), {@link #createNCNetwork()} has to be called
+     * again afterwards for removing the flows of the SGS from the network.
+     *
+     * @param SGSName SGService name
+     * @return true if a SGS with this name was found and removed
+     */
+    @SuppressWarnings("unused")
+    public synchronized boolean removeSGService(String SGSName) {
+        SGService service = sgServices.stream().filter(sgs -> sgs.getName().equals(SGSName)).findFirst().orElse(null);
+        if (service == null) {
+            return false;
+        }
+        sgServices.remove(service);
+        if (session != null && experimentConfig.incrementalAnalysis) {
+            session.removeService(service);
+        }
+        return true;
+    }
+
+    /**
+     * Add many edges within one call. To be called via Python, the arguments are the columns of the edge table. The
+     * nodes are transferred as one string, the numbers as one packed buffer per column, e.g.
+     * {@code nc.addEdges("\n".join(nodes1), "\n".join(nodes2), bitrates.astype('<f8').tobytes(), latencies.astype('<f8').tobytes())}.
+     * For details see {@link #addEdge(String, String, double, double)}
+     *
+     * @param nodes1    first node per edge, separated by line breaks
+     * @param nodes2    second node per edge, separated by line breaks
+     * @param bitrates  link bitrate per edge [Byte/s], little-endian doubles
+     * @param latencies link delay per edge [s], little-endian doubles
+     */
+    @SuppressWarnings("unused")
+    public synchronized void addEdges(String nodes1, String nodes2, byte[] bitrates, byte[] latencies) {
+        long start = System.nanoTime();
+        String[] firstNodes = splitNames(nodes1);
+        String[] secondNodes = splitNames(nodes2);
+        DoubleBuffer bitrateBuffer = unpackDoubles(bitrates);
+        DoubleBuffer latencyBuffer = unpackDoubles(latencies);
+        int noEdges = firstNodes.length;
+        if (secondNodes.length != noEdges || bitrateBuffer.remaining() != noEdges || latencyBuffer.remaining() != noEdges) {
+            throw new IllegalArgumentException("All edge columns need the same length.");
+        }
+        for (int i = 0; i < noEdges; i++) {
+            putEdge(new Edge(firstNodes[i], secondNodes[i], bitrateBuffer.get(), latencyBuffer.get()));
+        }
+        metrics.recordPhase("edgeIngestion", System.nanoTime() - start);
+    }
+
+    /**
+     * Add many edges within one call, using one packed buffer for all numeric values. To be called via Python,
+     * where the buffer can be created with e.g. {@code numpy.column_stack((bitrates, latencies)).astype('<f8').tobytes()}.
+     *
+     * @param nodes  node pairs of the edges separated by line breaks, flattened as [node1 of edge 0, node2 of edge 0,
+     *               node1 of edge 1, ...]
+     * @param values little-endian doubles, flattened as [bitrate of edge 0, latency of edge 0, bitrate of edge 1, ...]
+     */
+    @SuppressWarnings("unused")
+    public synchronized void addEdgesPacked(String nodes, byte[] values) {
+        long start = System.nanoTime();
+        String[] nodePairs = splitNames(nodes);
+        if (nodePairs.length % 2 != 0 || values.length != nodePairs.length * Double.BYTES) {
+            throw new IllegalArgumentException("Expected two nodes and two doubles per edge.");
+        }
+        DoubleBuffer buffer = unpackDoubles(values);
+        for (int i = 0; i < nodePairs.length; i += 2) {
+            putEdge(new Edge(nodePairs[i], nodePairs[i + 1], buffer.get(), buffer.get()));
+        }
+        metrics.recordPhase("edgeIngestion", System.nanoTime() - start);
+    }
+
+    /**
+     * Add many SGS within one call. To be called via Python, the arguments are the columns of the service table. The
+     * names are transferred as one string each, separated by line breaks, the numbers as one packed little-endian
+     * buffer per column (e.g. {@code bucket_sizes.astype('<i4').tobytes()}, {@code deadlines.astype('<f8').tobytes()}).
+     * The multipaths of all services are flattened into {@code pathNodes}: the paths of service 0 come first, each path
+     * consisting of {@code pathLengths[k]} consecutive nodes. For details see
+     * {@link #addSGService(String, String, int, int, double, List, int)}
+     *
+     * @param names        SGService name per service
+     * @param servernames  server name per service
+     * @param bucket_sizes bucket size per service, ints
+     * @param bitrates     bitrate per service, ints
+     * @param deadlines    deadline per service, doubles
+     * @param priorities   priority per service, ints, the highest priority is 0
+     * @param pathCounts   number of paths per service, ints
+     * @param pathLengths  number of nodes per path, summed up over all services, ints
+     * @param pathNodes    nodes of all paths
+     */
+    @SuppressWarnings("unused")
+    public synchronized void addSGServices(String names, String servernames, byte[] bucket_sizes, byte[] bitrates, byte[] deadlines,
+                              byte[] priorities, byte[] pathCounts, byte[] pathLengths, String pathNodes) {
+        long start = System.nanoTime();
+        String[] serviceNames = splitNames(names);
+        String[] serverNames = splitNames(servernames);
+        int[] bucketSizes = unpackInts(bucket_sizes);
+        int[] serviceBitrates = unpackInts(bitrates);
+        DoubleBuffer deadlineBuffer = unpackDoubles(deadlines);
+        int[] servicePriorities = unpackInts(priorities);
+        int[] servicePathCounts = unpackInts(pathCounts);
+        int[] servicePathLengths = unpackInts(pathLengths);
+        String[] nodes = splitNames(pathNodes);
+        int noServices = serviceNames.length;
+        if (serverNames.length != noServices || bucketSizes.length != noServices || serviceBitrates.length != noServices
+                || deadlineBuffer.remaining() != noServices || servicePriorities.length != noServices || servicePathCounts.length != noServices) {
+            throw new IllegalArgumentException("All service columns need the same length.");
+        }
+        if (Arrays.stream(servicePathCounts).sum() != servicePathLengths.length || Arrays.stream(servicePathLengths).sum() != nodes.length) {
+            throw new IllegalArgumentException("Path columns do not match the number of paths and nodes.");
+        }
+        int pathIdx = 0;
+        int nodeIdx = 0;
+        for (int i = 0; i < noServices; i++) {
+            List<List<String>> multipath = new ArrayList<>(servicePathCounts[i]);
+            for (int p = 0; p < servicePathCounts[i]; p++) {
+                int pathLength = servicePathLengths[pathIdx++];
+                multipath.add(List.of(Arrays.copyOfRange(nodes, nodeIdx, nodeIdx + pathLength)));
+                nodeIdx += pathLength;
+            }
+            putService(new SGService(serviceNames[i], serverNames[i], bucketSizes[i], serviceBitrates[i], deadlineBuffer.get(),
+                    multipath, toFlowPriority(servicePriorities[i])));
+        }
+        metrics.recordPhase("serviceIngestion", System.nanoTime() - start);
+    }
+
+    /**
+     * Store an edge, without recording metrics.
+     *
+     * @param edge new edge
+     */
+    private void putEdge(Edge edge) {
+        edgeList.add(edge);
+        topology.addEdge(edge);
+    }
+
+    /**
+     * Store an SGS and apply it to the existing network in incremental mode, without recording metrics.
+     *
+     * @param service new SGS
+     */
+    private void putService(SGService service) {
+        sgServices.add(service);
+        if (session != null && experimentConfig.incrementalAnalysis) {
+            session.addService(service);
+        }
+    }
+
+    /**
+     * @param joined names separated by line breaks, as transferred via Py4J within one call
+     * @return the names, none for an empty string
+     */
+    private static String[] splitNames(String joined) {
+        return joined.isEmpty() ? new String[0] : joined.split("\n", -1);
+    }
+
+    /**
+     * @param packed little-endian doubles
+     * @return view of the doubles
+     */
+    private static DoubleBuffer unpackDoubles(byte[] packed) {
+        if (packed.length % Double.BYTES != 0) {
+            throw new IllegalArgumentException("Packed doubles need a multiple of " + Double.BYTES + " bytes.");
+        }
+        return ByteBuffer.wrap(packed).order(ByteOrder.LITTLE_ENDIAN).asDoubleBuffer();
+    }
+
+    /**
+     * @param packed little-endian 32-bit ints
+     * @return the ints
+     */
+    private static int[] unpackInts(byte[] packed) {
+        if (packed.length % Integer.BYTES != 0) {
+            throw new IllegalArgumentException("Packed ints need a multiple of " + Integer.BYTES + " bytes.");
+        }
+        IntBuffer buffer = ByteBuffer.wrap(packed).order(ByteOrder.LITTLE_ENDIAN).asIntBuffer();
+        int[] values = new int[buffer.remaining()];
+        buffer.get(values);
+        return values;
+    }
+
+    /**
+     * Convert a numeric priority into a FlowPriority. Values out of range are clamped.
+     *
+     * @param priority priority, the highest priority is 0
+     * @return the matching FlowPriority
+     */
+    private static FlowPriority toFlowPriority(int priority) {
         // 0 is always the highest priority
         if (priority < 0) {
             priority = 0;
@@ -260,651 +371,674 @@ public class NCEntryPoint {
         if (priority >= FlowPriority.values().length) {
             priority = FlowPriority.values().length - 1;    // lowest possible priority
         }
-        FlowPriority priority_enum = FlowPriority.values()[priority];
-        SGService service = new SGService(SGSName, servername, bucket_size, bitrate, deadline, multipath, priority_enum);
-        sgServices.add(service);
+        return FlowPriority.values()[priority];
     }
 
     /**
-     * Reset all stored values (e.g. empty edgelist)
+     * Set the number of worker threads used for the per-flow analyses. To be called via Python.
+     *
+     * @param threads number of threads, values lower than 1 fall back to the serial analysis
      */
     @SuppressWarnings("unused")
-    public void resetAll() {
-        edgeList.clear();
-        sgServices.clear();
+    public synchronized void setAnalysisThreads(int threads) {
+        experimentConfig.analysisThreads = Math.max(1, threads);
+        if (session != null) {
+            session.getExperimentConfig().analysisThreads = experimentConfig.analysisThreads;
+        }
     }
 
     /**
-     * This function creates the final ServerGraph aka combines all the network elements in one network.
-     * Has to be called last, AFTER calling addEdge and addSGService for adding the network elements.
+     * Set the wall-clock budget for the analysis of one flow. Flows exceeding it are recorded as failed
+     * ({@link FlowFailure#TIMEOUT}), the remaining flows are analyzed nevertheless. To be called via Python.
+     *
+     * @param budget budget per flow [ms], 0 for no limit
      */
     @SuppressWarnings("unused")
-    public void createNCNetwork() {
-        // Create ServerGraph - aka network
-        ServerGraph sg = new ServerGraph();
-
-        // Add every edge as a server to the network
-        for (Edge edge : edgeList) {
-            List<String> edgeNodes = edge.getNodes();
-            List<ServiceCurve> service_curves;
-            // When a field device is involved, only a simple service curve shall be created instead of a scheduling one.
-            if (edgeNodes.get(0).contains("F") || edgeNodes.get(1).contains("F")) {
-                service_curves = createSimpleServiceCurves(edge, experimentConfig, FlowPriority.values().length);
-            } else {
-                // Create the service curve according to the current configuration settings
-                service_curves = createServiceCurves(edge, experimentConfig, FlowPriority.values().length);
-            }
-            // Add server (edge) with service curve to network
-            // (Important: Every "Edge"/"Server" in this Java code is unidirectional - not bidirectional!)
-            // --> For two-way /bidirectional but independent communication (e.g. switched Ethernet) use the "addEdge"
-            // function twice with a switched order of nodes.
-            for (int i = 0; i < FlowPriority.values().length; i++) {
-                FlowPriority prio = FlowPriority.values()[i];
-                String servername = String.join(",", edge.getNodes()) + prio;
-                Server serv = sg.addServer(servername, service_curves.get(i), experimentConfig.multiplexing);
-                // Add server to edge for future references
-                // IMPORTANT: The servers have to be added in ascending priority order (HIGH before MEDIUM or LOW)!
-                edge.setServer(prio, serv);
-            }
+    public synchronized void setFlowTimeBudget(long budget) {
+        experimentConfig.flowTimeBudget = Math.max(0, budget);
+        if (session != null) {
+            session.getExperimentConfig().flowTimeBudget = experimentConfig.flowTimeBudget;
         }
-        // Add the turns (connections) between the edges to the network
-        addTurnsToSG(sg);
+    }
 
-        // Add all flows to the network
-        FlowPriority fixedPrio = null;
-        if (experimentConfig.schedulingPolicy == ExperimentConfig.SchedulingPolicy.None){
-            fixedPrio = FlowPriority.values()[0];   // just take the first prio to add all flows to.
+    /**
+     * Set the stack size of the worker threads analyzing the flows. To be called via Python.
+     *
+     * @param stackSize stack size [Byte]
+     */
+    @SuppressWarnings("unused")
+    public synchronized void setAnalysisStackSize(long stackSize) {
+        experimentConfig.analysisStackSize = stackSize;
+        if (session != null) {
+            session.getExperimentConfig().analysisStackSize = stackSize;
         }
-        addFlowsToSG(sg, sgServices, -1, fixedPrio);
-        this.serverGraph = sg;
-        System.out.printf("%d Flows %n", sg.getFlows().size());
     }
 
     /**
-     * Helper function for adding the turn connections between the edges into a given SererGraph
+     * Set how the turns of the server graph are created. Takes effect with the next {@link #createNCNetwork()}.
+     * To be called via Python.
      *
-     * @param sg SerGraph to add all the connections to.
+     * @param turnGeneration "ALL_ADJACENT" (default) for connecting every pair of connected edges or "FLOW_PATHS" for
+     *                       creating only the turns used by the flows
      */
-    private void addTurnsToSG(ServerGraph sg) {
-        for (Edge currEdge : edgeList) {
-            List<Edge> targetEdgeList = getAllConnectingEdges(currEdge, edgeList);
-            for (Edge targetEdge : targetEdgeList) {
-                // We can just freely add one turn twice, duplicates get omitted by DiscoDNC
-                try {
-                    // Connect the NC servers according to their priorities --> No priority hoping possible!
-                    for (FlowPriority prio : FlowPriority.values()) {
-                        sg.addTurn(currEdge.getServer(prio), targetEdge.getServer(prio));
-                    }
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
-                }
-            }
-        }
+    @SuppressWarnings("unused")
+    public synchronized void setTurnGeneration(String turnGeneration) {
+        experimentConfig.turnGeneration = ExperimentConfig.TurnGeneration.valueOf(turnGeneration.toUpperCase());
     }
 
     /**
-     * This function tries every network analysis method, combined with every arrival bounding technique
-     * The result will be exported to the newly created folder "experiments" as a CSV file.
+     * Enable or disable the aggregation of flows with identical servers and priority into macro-flows, whose arrival
+     * curve is the sum of the ones of their members. Reduces the number of analyzed flows, the bound of a macro-flow is
+     * reported for all member flows. Only applied with FIFO multiplexing and without SP scheduling, otherwise the flows
+     * are analyzed separately (see {@link ExperimentConfig#aggregateFlows}). Takes effect with the next
+     * {@link #createNCNetwork()}. To be called via Python.
+     *
+     * @param aggregateFlows true for aggregating the flows
      */
     @SuppressWarnings("unused")
-    public void experimentAllCombinations() {
-        // The experimentLog is one List<String> with each entry being a String "," separated containing each experiment
-        List<List<String>> experimentLog = new ArrayList<>();
-        // Iterate over every multiplexing technique (FIFO & ARBITRARY)
-        for (var multiplexing : AnalysisConfig.Multiplexing.values()) {
-            experimentConfig.multiplexing = multiplexing;
+    public synchronized void setAggregateFlows(boolean aggregateFlows) {
+        experimentConfig.aggregateFlows = aggregateFlows;
+    }
 
-            // Iterate over every network analysis method
-            for (TandemAnalysis.Analyses anaType : TandemAnalysis.Analyses.values()) {
-                if (multiplexing == AnalysisConfig.Multiplexing.FIFO &&
-                        ((anaType == TandemAnalysis.Analyses.PMOO) || (anaType == TandemAnalysis.Analyses.TMA))) {
-                    // PMOO & TMA don't support FIFO multiplexing, skip them
-                    continue;
-                }
-                experimentConfig.ncAnalysisType = anaType;
+    /**
+     * Description of the cyclic dependencies found by the last {@link #createNCNetwork()}: one cycle of servers per
+     * cyclic component and the flows involved in it. To be called via Python.
+     *
+     * @return the description, null if the flows are free of cyclic dependencies
+     */
+    @SuppressWarnings("unused")
+    public synchronized String getCycleReport() {
+        return getSession().getCycleReport();
+    }
 
-                // Iterate over every Arrival bounding method
-                for (var arrBoundType : AnalysisConfig.ArrivalBoundMethod.values()) {
-                    // SEGR_TM lets the program crash
-                    if (arrBoundType == AnalysisConfig.ArrivalBoundMethod.SEGR_TM) {
-                        continue;
-                    }
-                    // These arrival boundings are not available with FIFO
-                    if(multiplexing == AnalysisConfig.Multiplexing.FIFO &&
-                            (arrBoundType == AnalysisConfig.ArrivalBoundMethod.AGGR_TM ||
-                             arrBoundType == AnalysisConfig.ArrivalBoundMethod.SEGR_PMOO ||
-                             arrBoundType == AnalysisConfig.ArrivalBoundMethod.AGGR_PMOO)) {
-                        continue;
-                    }
-                    experimentConfig.arrivalBoundMethod = arrBoundType;
+    /**
+     * Cancel the running {@link #calculateNCDelays()} or {@link #experimentAllCombinations()} call. Flows which are
+     * not finished yet are recorded as {@link FlowFailure#CANCELLED}, combinations which are not started yet are
+     * skipped. To be called via Python, from another thread than the running analysis.
+     */
+    @SuppressWarnings("unused")
+    public void cancelAnalysis() {
+        cancelRequested = true;
+        runningSessions.forEach(AnalysisSession::cancel);
+    }
 
-                    // Iterate over every scheduling policy
-                    for (var schedPol : ExperimentConfig.SchedulingPolicy.values()) {
-                        experimentConfig.schedulingPolicy = schedPol;
+    /**
+     * Define if {@link #calculateNCDelays()} and {@link #calculateNCDelaysResult()} export their results, see
+     * {@link #setResultFormat(String)}.
+     * To be called via Python.
+     *
+     * @param exportCSV true for exporting the results into the "calcs" folder
+     */
+    @SuppressWarnings("unused")
+    public synchronized void setExportCSV(boolean exportCSV) {
+        experimentConfig.exportCSV = exportCSV;
+    }
 
-                        // Reset the old servergraph, we need to modify the service curves and flow paths
-                        // according to the used scheduler
-                        resetServerGraph();
+    /**
+     * Define if the metrics (see {@link #getMetrics()}) are written next to the exported results, as
+     * "_metrics.csv" file. To be called via Python.
+     *
+     * @param exportMetrics true for exporting the metrics
+     */
+    @SuppressWarnings("unused")
+    public synchronized void setExportMetrics(boolean exportMetrics) {
+        experimentConfig.exportMetrics = exportMetrics;
+    }
+
+    /**
+     * Snapshot of the metrics collected since the start or the last {@link #resetMetrics()}: wall time per phase
+     * (edge ingestion, service curves, turns, flows, analysis), per-flow analysis latency histograms per analysis
+     * type and scheduling policy, the size of the last created network and the heap used per run.
+     * To be called via Python.
+     *
+     * @return metrics as name-value pairs, see {@link AnalysisMetrics#snapshot()}
+     */
+    @SuppressWarnings("unused")
+    public Map<String, Double> getMetrics() {
+        return metrics.snapshot();
+    }
 
-                        // Create the new NC network
-                        createNCNetwork();
+    /**
+     * Discard all collected metrics. To be called via Python.
+     */
+    @SuppressWarnings("unused")
+    public void resetMetrics() {
+        metrics.reset();
+    }
 
-                        // conduct the experiment with the newly defined configurations
-                        List<String> buffer = new ArrayList<>();
-                        calculateNCDelays(buffer);
-                        experimentLog.add(buffer);
-                    }
-                }
-            }
-        }
-        experimentConfig.insertConfigNamesInFront(experimentLog);
-        exportResultToCSV(experimentLog, "experiments", "experiment");
+    /**
+     * Set the format of the exported results. To be called via Python.
+     *
+     * @param format one of {@link ResultSink.Format}, "CSV" (default) or "NPY"
+     */
+    @SuppressWarnings("unused")
+    public synchronized void setResultFormat(String format) {
+        experimentConfig.resultFormat = ResultSink.Format.valueOf(format.toUpperCase());
     }
 
-    private static void exportResultToCSV(List<List<String>> experimentLog, String folderName, String prefix) {
-        // Export experimentLog to a file
-        try {
-            String fileSuffix = new SimpleDateFormat("yyyyMMddHHmmss").format(new Date());
-            // Create the experiments' subfolder, if not present
-            File directory = new File(folderName);
-            if (!directory.exists()) {
-                boolean success = directory.mkdir();
-                if (!success){
-                    System.err.println("Error when creating folder for exporting results. Aborting export.");
-                    return;
-                }
-            }
-            String filename = folderName + "/" + prefix + "Log_" + fileSuffix + ".csv";
-            FileWriter writer = new FileWriter(filename);
-            for (List<String> row : experimentLog){
-                String row_str = String.join(";", row);
-                writer.write(row_str + System.lineSeparator());
-            }
-            writer.close();
-        } catch (IOException e) {
-            throw new RuntimeException(e);
+    /**
+     * Enable or disable the incremental mode. To be called via Python.
+     * In incremental mode, SGSs added ({@link #addSGService(String, String, int, int, double, List, int)}) or removed
+     * ({@link #removeSGService(String)}) after {@link #createNCNetwork()} are directly applied to the existing network.
+     * The next analysis then only re-analyzes the SGSs interfering with the changed ones and reuses the previous
+     * delay bounds of all others.
+     *
+     * @param incremental true for enabling the incremental mode
+     */
+    @SuppressWarnings("unused")
+    public synchronized void setIncrementalMode(boolean incremental) {
+        experimentConfig.incrementalAnalysis = incremental;
+        if (session != null) {
+            session.getExperimentConfig().incrementalAnalysis = incremental;
         }
     }
 
     /**
-     * Function called by Python part.
-     * For details see {@link #calculateNCDelays(List)}
+     * Search the minimal link bitrates at which all deadlines hold, see {@link CapacityDimensioning}. The edge
+     * definitions are not modified. Can be cancelled by {@link #cancelAnalysis()}. To be called via Python.
      *
-     * @return boolean if one of the delay constraints is torn
+     * @param granularity "EDGE_CLASS" for one bitrate per link class (edges of equal bitrate) or "EDGE" for one bitrate
+     *                    per edge
+     * @param tolerance   relative precision of the bitrates, e.g. 0.01 for 1%
+     * @return minimal bitrate [Byte/s] per edge ("node1,node2")
      */
-    @SuppressWarnings("UnusedReturnValue")
-    public boolean calculateNCDelays() {
-        List<List<String>> experimentLog = new ArrayList<>();
-        List<String> buffer = new ArrayList<>();
+    @SuppressWarnings("unused")
+    public synchronized Map<String, Double> dimensionCapacities(String granularity, double tolerance) {
+        long start = System.nanoTime();
+        cancelRequested = false;
+        CapacityDimensioning dimensioning = new CapacityDimensioning(edgeList, topology, curveCache, sgServices,
+                experimentConfig.copy(), this::runSearchSession);
+        dimensioning.setTolerance(tolerance);
+        Map<String, Double> rates = dimensioning.dimension(CapacityDimensioning.Granularity.valueOf(granularity.toUpperCase()));
+        metrics.recordPhase("dimensioning", System.nanoTime() - start);
+        return rates;
+    }
 
-        boolean delayTorn =  calculateNCDelays(buffer);
-        experimentLog.add(buffer);
-        experimentConfig.insertConfigNamesInFront(experimentLog);
-        exportResultToCSV(experimentLog, "calcs", "bounding");
-        return delayTorn;
+    /**
+     * Search the scheduler weights (WFQ, WRR) or quanta (DRR) maximizing the minimal deadline slack, see
+     * {@link SchedulerOptimizer}. The best setting is applied to the experiment configuration and used by the next
+     * {@link #createNCNetwork()}. Can be cancelled by {@link #cancelAnalysis()}. To be called via Python.
+     *
+     * @param maxMultiplier highest weight, respectively multiple of the maximum packet size for the quanta
+     * @return the best setting
+     */
+    @SuppressWarnings("unused")
+    public synchronized SchedulerOptimizer.Setting optimizeSchedulerParameters(int maxMultiplier) {
+        long start = System.nanoTime();
+        cancelRequested = false;
+        SchedulerOptimizer optimizer = new SchedulerOptimizer(edgeList, topology, curveCache, sgServices,
+                experimentConfig.copy(), this::runSearchSession);
+        optimizer.setMaxMultiplier(maxMultiplier);
+        SchedulerOptimizer.Setting best = optimizer.optimize();
+        SchedulerOptimizer.apply(experimentConfig, best);
+        metrics.recordPhase("schedulerOptimization", System.nanoTime() - start);
+        return best;
     }
 
     /**
-     * Function to calculate the performance bounds for every flow and output the result onto the Console and into a
-     * given experimentLog
+     * Evaluate the Cartesian product of parameter values, see {@link ParameterSweep}. The cube is additionally exported
+     * as NPY file into the "sweeps" folder, if enabled by {@link #setExportCSV(boolean)}. Can be cancelled by
+     * {@link #cancelAnalysis()}. To be called via Python.
      *
-     * @param experimentLog List to add the output results into. Intended for CSV usage.
-     * @return boolean if one of the delay constraints is torn
+     * @param parameters names of the swept parameters, see {@link ParameterSweep.Parameter}
+     * @param values     values per swept parameter, in the order of the names
+     * @return worst-case delay of every SGS per point
      */
-    public boolean calculateNCDelays(List<String> experimentLog) {
-        // The AnalysisConfig can be used to modify different analysis parameters, e.g. the used arrival bounding method
-        // or to enforce Multiplexing strategies on the servers.
-        AnalysisConfig configuration = new AnalysisConfig();
-        configuration.setArrivalBoundMethod(experimentConfig.arrivalBoundMethod);
-        // Current work-around for the experiment run
-        if (experimentConfig.multiplexing == AnalysisConfig.Multiplexing.ARBITRARY) {
-            configuration.enforceMultiplexing(AnalysisConfig.MultiplexingEnforcement.GLOBAL_ARBITRARY);
-        } else {
-            configuration.enforceMultiplexing(AnalysisConfig.MultiplexingEnforcement.SERVER_LOCAL);
+    @SuppressWarnings("unused")
+    public synchronized ResultCube sweepParameters(List<String> parameters, List<List<Number>> values) {
+        if (parameters.size() != values.size()) {
+            throw new IllegalArgumentException("One list of values per parameter needed.");
         }
-        experimentConfig.outputConfig();
-        experimentConfig.writeConfiginBuffer(experimentLog);
-        expLog_addSGSPrios(experimentLog, sgServices);
-        try {
-            System.out.printf("------ Starting NC Analysis using " + experimentConfig.ncAnalysisType + " ------%n");
-            if (experimentConfig.schedulingPolicy == ExperimentConfig.SchedulingPolicy.SP) {
-                return calculate_SP_Delays(configuration, experimentConfig, experimentLog);
-            }
-            Map<String, List<Double>> perf_results = new HashMap<>();
-            boolean delayTorn = conductNC_Analysis(perf_results, configuration, sgServices, experimentConfig);
-            convertPerfResultsExpLog(experimentLog, perf_results);
-
-            return  delayTorn;
-        } catch (StackOverflowError e) {
-            System.err.println("Stackoverflow error detected! Possible reason: Cyclic dependency in network.");
-            return true;
+        long start = System.nanoTime();
+        cancelRequested = false;
+        ParameterSweep sweep = new ParameterSweep(edgeList, topology, curveCache, sgServices, experimentConfig.copy(),
+                this::runSearchSession);
+        for (int i = 0; i < parameters.size(); i++) {
+            sweep.addDimension(ParameterSweep.Parameter.valueOf(parameters.get(i).toUpperCase()),
+                    values.get(i).stream().mapToDouble(Number::doubleValue).toArray());
         }
+        ResultCube cube = sweep.run();
+        if (experimentConfig.exportCSV) {
+            cube.export("sweeps", "sweep");
+        }
+        metrics.recordPhase("parameterSweep", System.nanoTime() - start);
+        return cube;
     }
 
     /**
-     * Add the priorities of the different SGS to the experiment log.
-     * @param experimentLog experiment log in which the priorities shall be added
-     * @param sgServices Considered SGS from where the priorities shall be gathered
+     * Start {@link #calculateNCDelaysResult()} in the background. To be called via Python.
+     *
+     * @return the job, its result is the {@link AnalysisResult}
      */
-    private static void expLog_addSGSPrios(List<String> experimentLog, List<SGService> sgServices) {
-        StringBuilder result = new StringBuilder();
-        String prefix = "";
-        for (var sgs : sgServices){
-            result.append(prefix);
-            result.append(sgs.getName());
-            result.append(":");
-            result.append(sgs.getPriority());
-            prefix = " - ";
-        }
+    @SuppressWarnings("unused")
+    public AnalysisJob submitAnalysis() {
+        return submitJob("analysis", this::calculateNCDelaysResult);
+    }
 
-        experimentLog.add(result.toString());
+    /**
+     * Start {@link #experimentAllCombinations()} in the background. To be called via Python.
+     *
+     * @return the job, the results of the combinations are its partial results
+     */
+    @SuppressWarnings("unused")
+    public AnalysisJob submitExperiment() {
+        return submitJob("experiment", () -> {
+            experimentAllCombinations();
+            return null;
+        });
     }
 
     /**
-     * Internal function for conversion between Map and CSV export.
-     * @param experimentLog CSV intended column List
-     * @param perf_results Evaluation results in map format
+     * Start {@link #sweepParameters(List, List)} in the background. To be called via Python.
+     *
+     * @return the job, its result is the {@link ResultCube}
      */
-    private static void convertPerfResultsExpLog(List<String> experimentLog, Map<String, List<Double>> perf_results) {
-        List<String> sgs_keys = new ArrayList<>(perf_results.keySet());
-        Collections.sort(sgs_keys);
-        for (String sgs : sgs_keys){
-            experimentLog.add(sgs);
-            for (Double flow_delay : perf_results.get(sgs)) {
-                experimentLog.add(String.format("%.3f", flow_delay));
-            }
-        }
+    @SuppressWarnings("unused")
+    public AnalysisJob submitSweep(List<String> parameters, List<List<Number>> values) {
+        return submitJob("sweep", () -> sweepParameters(parameters, values));
     }
 
     /**
-     * Function to perform an NC analysis for strict priority scheduling, following the step-by-step algorithm
+     * Start {@link #dimensionCapacities(String, double)} in the background. To be called via Python.
      *
-     * @param analysisConfig   DiscoDNC network analysis configuration
-     * @param experimentConfig Overall experiment configuration, containing the parameters
-     * @param experimentLog    List to add the output results into. Intended for CSV usage.
-     * @return boolean if one of the delay constraints is torn
+     * @return the job, its result are the bitrates per edge
      */
-    private boolean calculate_SP_Delays(AnalysisConfig analysisConfig, ExperimentConfig experimentConfig, List<String> experimentLog) {
-        // First: Delete all present flows from the serverGraph (e.g. from previous analysis)
-        removeAllFlows();
-        // Procedure: add highest prio, calculate delay. Add next prio, calculate again
-        boolean highest_prio_finished = false;
-        boolean delayTorn = false;
-        Map<String, List<Double>> perf_results = new HashMap<>();
-        List<SGService> curr_SGSs = new ArrayList<>();
-        for (FlowPriority prio : FlowPriority.values()) {
-            // Select all SGSs which have the current priority
-            List<SGService> currprioSGSs = this.sgServices.stream().filter(sgService -> sgService.getPriority() == prio).toList();
-
-            // Add the new flows to the flows in the server graph.
-            curr_SGSs.addAll(currprioSGSs);
-
-            // Add all flows of this priority to the network
-            this.addFlowsToSG(this.serverGraph, curr_SGSs, -1, prio);
-
-            // Change the multiplexing technology - only for the highest priority we can use the multiplexing technology
-            // specified in the experimentConfig, for other priorities we have to use Arbitrary
-            if (!highest_prio_finished) {
-                highest_prio_finished = true;
-            } else {
-                analysisConfig.enforceMultiplexing(AnalysisConfig.MultiplexingEnforcement.GLOBAL_ARBITRARY);
-            }
+    @SuppressWarnings("unused")
+    public AnalysisJob submitDimensioning(String granularity, double tolerance) {
+        return submitJob("dimensioning", () -> dimensionCapacities(granularity, tolerance));
+    }
 
-            // Analyze performance of those flows
-            boolean prioDelayTorn = conductNC_Analysis(perf_results, analysisConfig, currprioSGSs, experimentConfig);
-            // Update delayTorn only to true
-            delayTorn = delayTorn | prioDelayTorn;
+    /**
+     * Start {@link #optimizeSchedulerParameters(int)} in the background. To be called via Python.
+     *
+     * @return the job, its result is the best {@link SchedulerOptimizer.Setting}
+     */
+    @SuppressWarnings("unused")
+    public AnalysisJob submitOptimization(int maxMultiplier) {
+        return submitJob("optimization", () -> optimizeSchedulerParameters(maxMultiplier));
+    }
 
-            // Delete the flows from the server graph
-            removeAllFlows();
-        }
-        convertPerfResultsExpLog(experimentLog, perf_results);
-        return delayTorn;
+    /**
+     * @param jobId id of a job submitted to this entry point
+     * @return the job, for polling its progress and result
+     */
+    @SuppressWarnings("unused")
+    public AnalysisJob getJob(String jobId) {
+        return jobManager.getJob(jobId);
+    }
+
+    /**
+     * @return ids of all jobs of this entry point which were not removed
+     */
+    @SuppressWarnings("unused")
+    public List<String> getJobIds() {
+        return jobManager.getJobIds();
     }
 
     /**
-     * Helper function for conducting the DiscoDNC network analysis for every specified flow saved in sgServices
+     * Forget a job after fetching its result, an unfinished job is cancelled. To be called via Python.
      *
-     * @param results          Hashmap into which the results of the different SGSs will be stored in.
-     * @param analysisConfig   DiscoDNC analysis configuration
-     * @param sgServices       SGSs to be analyzed
-     * @param experimentConfig Overall experimentConfiguration with the parameters
-     * @return boolean if one of the delay constraints is torn
+     * @param jobId id of the job
+     * @return false if no job with the id exists
      */
-    private boolean conductNC_Analysis(Map<String, List<Double>> results, AnalysisConfig analysisConfig, List<SGService> sgServices, ExperimentConfig experimentConfig) {
-        boolean delayTorn = false;
-        for (SGService sgs : sgServices) {
-            double maxDelay = 0;
-            System.out.printf("--- Analyzing SGS \"%s\" ---%n", sgs.getName());
+    @SuppressWarnings("unused")
+    public boolean removeJob(String jobId) {
+        return jobManager.removeJob(jobId);
+    }
 
-            List<Double> flowDelays = new ArrayList<>();
-            for (Flow foi : sgs.getFlows()) {
-                System.out.printf("- Analyzing flow \"%s\" -%n", foi);
+    /**
+     * Queue a call of this entry point as job. The jobs of this entry point run one after another (see
+     * {@link JobManager}), a job only waits for a direct call in progress.
+     *
+     * @param type description of the job
+     * @param call call to execute
+     * @return the queued job
+     */
+    private AnalysisJob submitJob(String type, Callable<Object> call) {
+        return jobManager.submit(type, job -> {
+            synchronized (this) {
+                currentJob = job;
                 try {
-                    TandemAnalysis ncanalysis = switch (experimentConfig.ncAnalysisType) {
-                        case TFA -> TandemAnalysis.performTfaEnd2End(this.serverGraph, analysisConfig, foi);
-                        case SFA -> TandemAnalysis.performSfaEnd2End(this.serverGraph, analysisConfig, foi);
-                        case PMOO -> TandemAnalysis.performPmooEnd2End(this.serverGraph, analysisConfig, foi);
-                        case TMA -> new TandemMatchingAnalysis(this.serverGraph, analysisConfig);
-                    };
-                    // TMA doesn't have the convenience function
-                    if (experimentConfig.ncAnalysisType == TandemAnalysis.Analyses.TMA) {
-                        ncanalysis.performAnalysis(foi);
+                    // Cancelled while waiting for a direct call in progress
+                    if (job.isCancelled()) {
+                        throw new CancellationException("Job " + job.getId() + " cancelled");
                     }
-                    // Get the foi delay
-                    double foi_delay = ncanalysis.getDelayBound().doubleValue(); // delay is in s
-
-                    // Calculate propagation delay (if no propagation delay is desired, configuration value is set to 0)
-                    double prop_delay = experimentConfig.propagationDelay * foi.getPath().numServers();
-                    // Add propagation delay to delay bound
-                    foi_delay += prop_delay;
-                    // Print the end-to-end delay bound
-                    System.out.printf("delay bound     : %.2fms %n", foi_delay * 1000);     // Convert s to ms
-//                  System.out.printf("backlog bound   : %.2f %n", sfa.getBacklogBound().doubleValue());
-
-                    flowDelays.add(foi_delay * 1000);   // Convert s to ms
-                    // compute service max flow delay
-                    maxDelay = Math.max(foi_delay, maxDelay);
-                } catch (Exception e) {
-                    // Here we land e.g. when we have PMOO & FIFO!
-                    System.out.println(experimentConfig.ncAnalysisType + " analysis failed");
-                    e.printStackTrace();
-                    flowDelays.add(-1.0);
+                    return call.call();
+                } finally {
+                    currentJob = null;
                 }
             }
-            results.put(sgs.getName(), flowDelays);
-            System.out.printf("Max service delay for %s is %.2fms (deadline: %.2fms) %n", sgs.getName(), maxDelay * 1000, sgs.getDeadline() * 1000);
-            if (sgs.getDeadline() < maxDelay) {
-                System.err.printf("Service %s deadline not met (%.2fms/%.2fms) %n", sgs.getName(), maxDelay * 1000, sgs.getDeadline() * 1000);
-                delayTorn = true;
+        }, job -> {
+            // Only cancel the analysis if it belongs to the job
+            if (currentJob == job) {
+                cancelAnalysis();
             }
-        }
-        return delayTorn;
+        });
     }
 
     /**
-     * Function used to remove all Flows from the current ServerGraph and
-     * also remove all references made inside the SGService class
+     * Enable or disable the feasibility mode. To be called via Python.
+     * In feasibility mode, {@link #calculateNCDelays()} analyzes the SGSs most likely to miss their deadline first and
+     * stops at the first torn deadline, only the returned verdict is complete.
+     *
+     * @param feasibilityOnly true for enabling the feasibility mode
      */
-    private void removeAllFlows() {
-        for (Flow flow : this.serverGraph.getFlows()) {
-            try {
-                this.serverGraph.removeFlow(flow);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
+    @SuppressWarnings("unused")
+    public synchronized void setFeasibilityMode(boolean feasibilityOnly) {
+        experimentConfig.feasibilityOnly = feasibilityOnly;
+        if (session != null) {
+            session.getExperimentConfig().feasibilityOnly = feasibilityOnly;
         }
-        sgServices.forEach(SGService::resetFlowList);
     }
 
     /**
-     * Helper function to remove all servers of the servergraph
-     * and delete all references inside the edgeList
+     * Change the limits of the result cache. To be called via Python.
+     *
+     * @param maxEntries maximum number of cached results, 0 disables the cache
+     * @param maxBytes   maximum estimated memory of all cached results [Byte]
      */
-    private void removeAllServers(){
-        for (Server server : this.serverGraph.getServers()) {
-            try {
-                this.serverGraph.removeServer(server);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
-            }
-        }
-        edgeList.forEach(Edge::resetServerList);
+    @SuppressWarnings("unused")
+    public synchronized void setResultCacheLimits(int maxEntries, long maxBytes) {
+        resultCache.setLimits(maxEntries, maxBytes);
     }
 
     /**
-     * Helper function used to reset the Server graph
-     * and all references made inside the edgeList
-     * and SGServices.
-     * Preserves the initial definition of edges and services.
+     * Remove every result from the result cache. To be called via Python.
      */
-    private void resetServerGraph(){
-        removeAllFlows();
-        removeAllServers();
-        this.serverGraph = new ServerGraph();
+    @SuppressWarnings("unused")
+    public synchronized void clearResultCache() {
+        resultCache.clear();
     }
 
     /**
-     * This function adds {@code nmbFlow} number of flows to the server graph (sg is modified in place).
+     * To be called via Python.
      *
-     * @param sg            Servergraph to add the flows to.
-     * @param sgServiceList List of all available SGServices from which the flows shall be derived.
-     * @param nmbFlow       number of flows which should be added. Use "-1" for all available flows.
-     * @param fixedPrio     Use a fixed priority to choose the NC server where the flows shall be added.
-     *                      Set to "null" if the SGS priority shall be used.
+     * @return hit/miss statistics and the occupancy of the result cache
      */
-    private void addFlowsToSG(ServerGraph sg, List<SGService> sgServiceList, int nmbFlow, FlowPriority fixedPrio) {
-        // nmbFlow = -1 is used to add all available flows.
-        if (nmbFlow == -1) {
-            nmbFlow = Integer.MAX_VALUE;
-        }
-        // Add nmbFlow flows to the network (at most the available ones)
-        int counter = 0;
-        for (SGService service : sgServiceList) {
-            // Create arrival curve with specified details
-            ArrivalCurve arrival_curve = switch (experimentConfig.arrivalCurveType) {
-                case TokenBucket ->
-                        Curve.getFactory().createTokenBucket(service.getBitrate(), service.getBucket_size());
-                case PeakArrivalRate -> Curve.getFactory().createPeakArrivalRate(service.getBitrate());
-            };
-            // Iterate over every field device - server combination (aka Path)
-            for (int pathIdx = 0; pathIdx < service.getMultipath().size(); pathIdx++) {
-                List<String> path = service.getMultipath().get(pathIdx);
-                List<Server> dncPath = new ArrayList<>();
-                List<String> edgeNodes = new ArrayList<>();
-                // Find servers along path
-                for (int i = 1; i < path.size(); i++) {  // Important: We start with the second item in the list!
-                    edgeNodes.clear();
-                    edgeNodes.add(path.get(i - 1));
-                    edgeNodes.add(path.get(i));
-                    // Add the found edge to the dncPath
-                    if (fixedPrio == null) {
-                        // The priority of the service shall be used
-                        dncPath.add(findEdgebyNodes(edgeList, edgeNodes).getServer(service.getPriority()));
-                    } else {
-                        // A fixed value for the priority shall be used
-                        dncPath.add(findEdgebyNodes(edgeList, edgeNodes).getServer(fixedPrio));
-                    }
-                }
-                // Create flow and add it to the network
-                try {
-                    Flow flow = sg.addFlow(arrival_curve, dncPath);
-                    service.addFlow(flow);
-                    if (++counter >= nmbFlow) {
-                        // Abort adding more flows
-                        return;
-                    }
-                } catch (Exception e) {
-                    //TODO: Exception Handling
-                    throw new RuntimeException(e);
-                }
-            }
-        }
+    @SuppressWarnings("unused")
+    public Map<String, Long> getResultCacheStatistics() {
+        return resultCache.getStatistics();
     }
 
     /**
-     * Test case which does a network calculus analysis after adding each flow.
+     * To be called via Python.
      *
-     * @param sg            ServerGraph which includes the servers and turns already
-     * @param sgServiceList List of all available SGServices from which the flows shall be derived.
+     * @return hit/miss statistics of the service curve cache
      */
     @SuppressWarnings("unused")
-    private void testFlowAfterFlow(ServerGraph sg, List<SGService> sgServiceList) {
-        // Get the total number of flows first
-        int maxFlow = 0;
-        for (SGService service : sgServiceList) {
-            maxFlow += service.getMultipath().size();
-        }
+    public Map<String, Long> getServiceCurveCacheStatistics() {
+        return curveCache.getStatistics();
+    }
 
-        for (int nmbFlow = 1; nmbFlow <= maxFlow; nmbFlow++) {
-            addFlowsToSG(sg, sgServiceList, nmbFlow, FlowPriority.HIGH);
-            // Safe the server graph
-            this.serverGraph = sg;
-            System.out.printf("%d Flows %n", sg.getFlows().size());
+    /**
+     * Set the level of the console output, see {@link EventLog}. The level applies to the whole JVM, i.e. to all
+     * sessions. To be called via Python.
+     *
+     * @param level "DEBUG" (incl. the bound of every flow), "INFO" (default), "WARN", "ERROR" or "OFF"
+     */
+    @SuppressWarnings("unused")
+    public void setLogLevel(String level) {
+        EventLog.setLevel(EventLog.Level.valueOf(level.toUpperCase()));
+    }
 
-            calculateNCDelays();
+    /**
+     * Reset all stored values (e.g. empty edgelist)
+     */
+    @SuppressWarnings("unused")
+    public synchronized void resetAll() {
+        edgeList.clear();
+        topology.clear();
+        sgServices.clear();
+        session = null;
+    }
 
-            // Delete the flows
-            for (Flow flow : sg.getFlows()) {
-                try {
-                    sg.removeFlow(flow);
-                } catch (Exception e) {
-                    throw new RuntimeException(e);
-                }
-            }
-            for (SGService service : sgServiceList) {
-                service.getFlows().clear();
-            }
-        }
+    /**
+     * Add a synthetic network, generated by {@link TopologyGenerator}, to the stored network elements.
+     * To be called via Python.
+     *
+     * @param type         topology type, one of {@link TopologyGenerator.TopologyType} (e.g. "RING")
+     * @param fieldDevices number of field devices
+     * @param hubs         number of hubs
+     * @param servers      number of control servers
+     * @param services     number of SGSs
+     * @param seed         seed of the random generator
+     */
+    @SuppressWarnings("unused")
+    public synchronized void generateTopology(String type, int fieldDevices, int hubs, int servers, int services, long seed) {
+        new TopologyGenerator(seed).generate(this, TopologyGenerator.TopologyType.valueOf(type.toUpperCase()),
+                fieldDevices, hubs, servers, services);
+    }
+
+    List<Edge> getEdgeList() {
+        return edgeList;
     }
 
+    TopologyIndex getTopology() {
+        return topology;
+    }
+
+    List<SGService> getSGServices() {
+        return sgServices;
+    }
 
     /**
-     * Test case which does a network calculus analysis after adding each flow.
+     * Set the number of combinations which are evaluated concurrently by {@link #experimentAllCombinations()}.
+     * To be called via Python.
      *
-     * @param sg            ServerGraph which includes the servers and turns already
-     * @param sgServiceList List of all available SGServices from which the flows shall be derived.
+     * @param threads number of threads, values lower than 1 fall back to the sequential evaluation
      */
     @SuppressWarnings("unused")
-    private void testFlowPairs(ServerGraph sg, List<SGService> sgServiceList) {
-        // Get the total number of flows first
-        int maxFlow = 0;
-        for (SGService service : sgServiceList) {
-            maxFlow += service.getMultipath().size();
-        }
+    public synchronized void setExperimentThreads(int threads) {
+        experimentConfig.experimentThreads = Math.max(1, threads);
+    }
 
-        List<SGService> sgServiceListPre = new ArrayList<>();
-        // Modify "max_depth" according to the test case you want to simulate
-        recursiveCallFnc(sg, sgServiceList, sgServiceListPre, 1, 3);
-    }
-
-    /**
-     * This function is used to test different combinations of flows. The function is meant as a recursive call, initialize the {@code curr_depth} with 1.
-     *
-     * @param sg                Disco server graph to use
-     * @param sgServiceList     total list of SGS
-     * @param servicesCumulated List of services already accumulated by previous recursive calls. Call with empty list as initial call.
-     * @param curr_depth        current recursion depth. Initialize with 1 in initial call.
-     * @param max_depth         maximal recursion depth aka number of flows per combination.
-     */
-    private void recursiveCallFnc(ServerGraph sg, List<SGService> sgServiceList, List<SGService> servicesCumulated, int curr_depth, int max_depth) {
-        for (int serviceCntInner = 0; serviceCntInner < sgServiceList.size(); serviceCntInner++) {
-            SGService serviceInner = sgServiceList.get(serviceCntInner);
-            // Iterate over every flow in this service in outer loop
-            for (int flowCntInner = 0; flowCntInner < serviceInner.getMultipath().size(); flowCntInner++) {
-                List<String> pathInner = serviceInner.getMultipath().get(flowCntInner);
-                // Add those two to the network and calculate
-                List<List<String>> newPathListInner = new ArrayList<>();
-                newPathListInner.add(pathInner);
-                SGService serviceNewInner = new SGService(serviceInner.getName(), serviceInner.getServer(), serviceInner.getBucket_size(), serviceInner.getBitrate(), serviceInner.getDeadline(), newPathListInner, serviceInner.getPriority());
-                // Add the two flows to the network
-                List<SGService> sgServicesCompare = new ArrayList<>(servicesCumulated);
-                sgServicesCompare.add(serviceNewInner);
-
-                if (curr_depth >= max_depth) {
-                    // Do the final computation
-                    this.sgServices = sgServicesCompare;
-                    addFlowsToSG(sg, sgServicesCompare, -1, FlowPriority.HIGH);
-                    // Safe the server graph
-                    this.serverGraph = sg;
-                    System.out.printf("%d Flows %n", sg.getFlows().size());
-
-                    calculateNCDelays();
-
-                    // Delete the flows
-                    for (Flow flow : sg.getFlows()) {
-                        try {
-                            sg.removeFlow(flow);
-                        } catch (Exception e) {
-                            throw new RuntimeException(e);
-                        }
+    /**
+     * This function creates the final ServerGraph aka combines all the network elements in one network.
+     * Has to be called last, AFTER calling addEdge and addSGService for adding the network elements.
+     * The network is built in a new {@link AnalysisSession} using a copy of the current experiment configuration.
+     */
+    @SuppressWarnings("unused")
+    public synchronized void createNCNetwork() {
+        session = new AnalysisSession(edgeList, topology, curveCache, sgServices, experimentConfig.copy(), metrics);
+        session.createNCNetwork();
+    }
+
+    /**
+     * This function tries every network analysis method, combined with every arrival bounding technique
+     * The result will be exported to the newly created folder "experiments", in the format set by
+     * {@link #setResultFormat(String)}. Every result is written as soon as its combination is finished.
+     * Every combination is evaluated in its own {@link AnalysisSession}, up to
+     * {@link ExperimentConfig#experimentThreads} combinations are evaluated concurrently.
+     */
+    @SuppressWarnings("unused")
+    public synchronized void experimentAllCombinations() {
+        List<ExperimentConfig> combinations = new ArrayList<>();
+        // Iterate over every multiplexing technique (FIFO & ARBITRARY)
+        for (var multiplexing : AnalysisConfig.Multiplexing.values()) {
+            // Iterate over every network analysis method
+            for (TandemAnalysis.Analyses anaType : TandemAnalysis.Analyses.values()) {
+                if (multiplexing == AnalysisConfig.Multiplexing.FIFO &&
+                        ((anaType == TandemAnalysis.Analyses.PMOO) || (anaType == TandemAnalysis.Analyses.TMA))) {
+                    // PMOO & TMA don't support FIFO multiplexing, skip them
+                    continue;
+                }
+                // Iterate over every Arrival bounding method
+                for (var arrBoundType : AnalysisConfig.ArrivalBoundMethod.values()) {
+                    // SEGR_TM lets the program crash
+                    if (arrBoundType == AnalysisConfig.ArrivalBoundMethod.SEGR_TM) {
+                        continue;
+                    }
+                    // These arrival boundings are not available with FIFO
+                    if(multiplexing == AnalysisConfig.Multiplexing.FIFO &&
+                            (arrBoundType == AnalysisConfig.ArrivalBoundMethod.AGGR_TM ||
+                             arrBoundType == AnalysisConfig.ArrivalBoundMethod.SEGR_PMOO ||
+                             arrBoundType == AnalysisConfig.ArrivalBoundMethod.AGGR_PMOO)) {
+                        continue;
+                    }
+                    // Iterate over every scheduling policy
+                    for (var schedPol : ExperimentConfig.SchedulingPolicy.values()) {
+                        ExperimentConfig combination = experimentConfig.copy();
+                        combination.multiplexing = multiplexing;
+                        combination.ncAnalysisType = anaType;
+                        combination.arrivalBoundMethod = arrBoundType;
+                        combination.schedulingPolicy = schedPol;
+                        combinations.add(combination);
                     }
-                    for (SGService service : this.sgServices) {
-                        service.getFlows().clear();
+                }
+            }
+        }
+
+        // Every result is written as soon as it and all previous combinations are finished, keeping the order of
+        // the combinations in the log
+        cancelRequested = false;
+        int threads = Math.min(experimentConfig.experimentThreads, combinations.size());
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, threads));
+        try (ResultSink sink = ResultSink.open(experimentConfig.resultFormat, "experiments", "experiment")) {
+            List<Future<AnalysisResult>> futures = new ArrayList<>(combinations.size());
+            for (ExperimentConfig combination : combinations) {
+                futures.add(executor.submit(() -> {
+                    if (cancelRequested) {
+                        return null;
                     }
-                } else {
-                    recursiveCallFnc(sg, sgServiceList, sgServicesCompare, curr_depth + 1, max_depth);
+                    // Every combination gets its own server graph, the service curves and flow paths depend on the
+                    // used scheduler
+                    AnalysisSession combinationSession = new AnalysisSession(edgeList, topology, curveCache, sgServices, combination, metrics);
+                    combinationSession.createNCNetwork();
+
+                    // conduct the experiment with the newly defined configurations
+                    return runSession(combinationSession);
+                }));
+            }
+            for (int i = 0; i < futures.size(); i++) {
+                AnalysisResult result = futures.get(i).get();
+                if (result == null) {
+                    // Skipped after a cancellation
+                    continue;
+                }
+                sink.write(result);
+                // Release the written result
+                futures.set(i, null);
+                if (experimentConfig.exportMetrics) {
+                    sink.writeMetrics(metrics.snapshot());
                 }
             }
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            executor.shutdownNow();
         }
     }
 
     /**
-     * Special test case for the presentation scenario, using the "SE" service, path "F23 - S1" and
-     * the "LM" service, path "F12 - S2". Only adding those two flows, results in a stackoverflow.
+     * Function called by Python part.
+     * For details see {@link #calculateNCDelays(List)}
      *
-     * @param sg ServerGraph which includes the servers and turns already
+     * @return boolean if one of the delay constraints is torn
      */
-    @SuppressWarnings("unused")
-    private void testBidirectionalFlow(ServerGraph sg) {
-        {
-            SGService service = sgServices.get(0);  // "SE" service
-            // Create arrival curve with specified details
-            ArrivalCurve arrival_curve = Curve.getFactory().createTokenBucket(service.getBitrate(), service.getBucket_size());
+    @SuppressWarnings("UnusedReturnValue")
+    public synchronized boolean calculateNCDelays() {
+        return calculateNCDelaysResult().isDelayTorn();
+    }
 
-            int pathIdx = 4; // path "F23 - S1"
-            List<String> path = service.getMultipath().get(pathIdx);
-            List<Server> dncPath = new ArrayList<>();
-            List<String> edgeNodes = new ArrayList<>();
-            // Find servers along path
-            for (int i = 1; i < path.size(); i++) {  // Important: We start with the second item in the list!
-                edgeNodes.clear();
-                edgeNodes.add(path.get(i - 1));
-                edgeNodes.add(path.get(i));
-                Collections.sort(edgeNodes);    // Important for comparison
-                // Add the found edge to the dncPath
-                dncPath.add(findEdgebyNodes(edgeList, edgeNodes).getServer());
-            }
-            // Create flow and add it to the network
-            try {
-                Flow flow = sg.addFlow(arrival_curve, dncPath);
-                service.addFlow(flow);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
+    /**
+     * Function called by Python part. Calculates the performance bounds for every flow of the network created by
+     * {@link #createNCNetwork()} and returns them in memory. The result is additionally exported into the "calcs"
+     * folder, if enabled by {@link #setExportCSV(boolean)}, in the format set by {@link #setResultFormat(String)}.
+     * Networks and configurations which were already evaluated are answered from the result cache. Edges and SGSs added
+     * without incremental mode after {@link #createNCNetwork()} are neither analyzed nor part of the cache key.
+     *
+     * @return the delay bounds of all SGSs and flows, together with the used configuration
+     */
+    public synchronized AnalysisResult calculateNCDelaysResult() {
+        AnalysisSession currSession = getSession();
+        // The key has to describe the network the session was built of, not the current definitions, which may have
+        // changed since the last createNCNetwork()
+        String cacheKey = ResultCache.computeKey(currSession.getEdgeList(), currSession.getSGServices(), currSession.getExperimentConfig());
+        AnalysisResult result = resultCache.get(cacheKey);
+        if (result == null) {
+            cancelRequested = false;
+            result = runSession(currSession);
+            // Cancelled, timed out or overflowed analyses are not reproducible
+            if (result.isComplete()) {
+                resultCache.put(cacheKey, result);
             }
+        } else {
+            EventLog.info("analysis", "Result taken from the result cache");
         }
-        {
-            SGService service = sgServices.get(3);  // "LM" service
-            // Create arrival curve with specified details
-            ArrivalCurve arrival_curve = Curve.getFactory().createTokenBucket(service.getBitrate(), service.getBucket_size());
-
-            int pathIdx = 0; // Path "F23 - S1"
-            List<String> path = service.getMultipath().get(pathIdx);
-            List<Server> dncPath = new ArrayList<>();
-            List<String> edgeNodes = new ArrayList<>();
-            // Find servers along path
-            for (int i = 1; i < path.size(); i++) {  // Important: We start with the second item in the list!
-                edgeNodes.clear();
-                edgeNodes.add(path.get(i - 1));
-                edgeNodes.add(path.get(i));
-                Collections.sort(edgeNodes);    // Important for comparison
-                // Add the found edge to the dncPath
-                dncPath.add(findEdgebyNodes(edgeList, edgeNodes).getServer());
-            }
-            // Create flow and add it to the network
-            try {
-                Flow flow = sg.addFlow(arrival_curve, dncPath);
-                service.addFlow(flow);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
+        if (experimentConfig.exportCSV) {
+            try (ResultSink sink = ResultSink.open(experimentConfig.resultFormat, "calcs", "bounding")) {
+                sink.write(result);
+                if (experimentConfig.exportMetrics) {
+                    sink.writeMetrics(metrics.snapshot());
+                }
             }
         }
-        // Safe the server graph
-        this.serverGraph = sg;
-        System.out.printf("%d Flows %n", sg.getFlows().size());
-
-        calculateNCDelays();
-
-        // Delete the flows
-        for (Flow flow : sg.getFlows()) {
-            try {
-                sg.removeFlow(flow);
-            } catch (Exception e) {
-                throw new RuntimeException(e);
+        return result;
+    }
+
+    /**
+     * Function to calculate the performance bounds for every flow of the network created by
+     * {@link #createNCNetwork()} and output the result onto the Console and into a given experimentLog
+     *
+     * @param experimentLog List to add the output results into. Intended for CSV usage.
+     * @return boolean if one of the delay constraints is torn
+     */
+    public synchronized boolean calculateNCDelays(List<String> experimentLog) {
+        return getSession().calculateNCDelays(experimentLog);
+    }
+
+    /**
+     * Analyze a session, which can be cancelled by {@link #cancelAnalysis()} meanwhile.
+     *
+     * @param runningSession session to analyze
+     * @return result of the analysis
+     */
+    private AnalysisResult runSession(AnalysisSession runningSession) {
+        AnalysisJob job = currentJob;
+        if (job != null) {
+            runningSession.setProgress(job.getProgress());
+        }
+        runningSessions.add(runningSession);
+        if (cancelRequested || (job != null && job.isCancelled())) {
+            runningSession.cancel();
+        }
+        try {
+            AnalysisResult result = runningSession.calculateNCResult();
+            if (job != null) {
+                job.addPartialResult(result);
             }
+            return result;
+        } finally {
+            runningSessions.remove(runningSession);
         }
-        for (SGService service : sgServices) {
-            service.getFlows().clear();
+    }
+
+    /**
+     * Analyze a session of a search or sweep (e.g. {@link #dimensionCapacities(String, double)}), aborting it after
+     * {@link #cancelAnalysis()}.
+     *
+     * @param searchSession session to analyze
+     * @return result of the analysis
+     * @throws CancellationException if the search or sweep was cancelled
+     */
+    private AnalysisResult runSearchSession(AnalysisSession searchSession) {
+        AnalysisResult result = runSession(searchSession);
+        if (cancelRequested) {
+            throw new CancellationException("Search cancelled");
+        }
+        return result;
+    }
+
+    /**
+     * @return the session of the last {@link #createNCNetwork()} call
+     */
+    private AnalysisSession getSession() {
+        if (session == null) {
+            throw new IllegalStateException("No NC network present, call createNCNetwork() first.");
         }
+        return session;
     }
 }
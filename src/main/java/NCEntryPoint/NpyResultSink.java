@@ -0,0 +1,143 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Writes the flow delays of all results into one NPY file (numpy format version 1.0), one record per flow:
+ * <pre>
+ * combination  int32    index of the result, in the order of writing
+ * service      int32    index of the SGS, see the services file
+ * flow         int32    index of the flow inside the SGS
+ * delay        float64  delay bound [ms], -1 for a failed analysis
+ * </pre>
+ * The file can be memory-mapped via {@code numpy.load(path, mmap_mode='r')}. The header is updated after every
+ * result, so the file is valid at any time.
+ * <p>
+ * Two CSV files are written next to it: "_combinations.csv" with the configuration of every result and
+ * "_services.csv" with the name, priority and deadline [ms] of every SGS.
+ */
+public class NpyResultSink extends ResultSink {
+    private static final int HEADER_LENGTH = 192;
+    private static final int RECORD_SIZE = 3 * Integer.BYTES + Double.BYTES;
+
+    private final FileChannel records;
+    private final FileChannel combinations;
+    private final FileChannel services;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(64 * 1024).order(ByteOrder.LITTLE_ENDIAN);
+    private final Map<String, Integer> serviceIndices = new HashMap<>();
+    private int noCombinations = 0;
+    private long noRecords = 0;
+
+    /**
+     * @param basePath path of the files without extension
+     * @throws IOException if one of the files can't be created
+     */
+    NpyResultSink(Path basePath) throws IOException {
+        super(basePath);
+        String name = basePath.getFileName().toString();
+        records = openChannel(basePath.resolveSibling(name + ".npy"));
+        combinations = openChannel(basePath.resolveSibling(name + "_combinations.csv"));
+        services = openChannel(basePath.resolveSibling(name + "_services.csv"));
+        writeFully(records, header(0));
+        writeText(services, "Service;Name;Priority;Deadline [ms]" + System.lineSeparator());
+    }
+
+    @Override
+    public synchronized void write(AnalysisResult result) {
+        try {
+            StringBuilder text = new StringBuilder();
+            if (noCombinations == 0) {
+                text.append("Combination;").append(String.join(";", result.getConfigNames()))
+                        .append(";Delay torn").append(System.lineSeparator());
+            }
+            text.append(noCombinations).append(';').append(String.join(";", result.getConfigValues()))
+                    .append(';').append(result.isDelayTorn()).append(System.lineSeparator());
+            writeText(combinations, text);
+
+            String[] names = result.getServiceNames();
+            FlowPriority[] priorities = result.getPriorities();
+            double[] deadlines = result.getDeadlines();
+            int[] offsets = result.getFlowOffsets();
+            double[] delays = result.getFlowDelays();
+            StringBuilder newServices = new StringBuilder();
+            for (int i = 0; i < names.length; i++) {
+                Integer serviceIdx = serviceIndices.get(names[i]);
+                if (serviceIdx == null) {
+                    serviceIdx = serviceIndices.size();
+                    serviceIndices.put(names[i], serviceIdx);
+                    newServices.append(serviceIdx).append(';').append(names[i]).append(';')
+                            .append(priorities[i]).append(';').append(deadlines[i]).append(System.lineSeparator());
+                }
+                for (int flowIdx = offsets[i]; flowIdx < offsets[i + 1]; flowIdx++) {
+                    if (buffer.remaining() < RECORD_SIZE) {
+                        flushRecords();
+                    }
+                    buffer.putInt(noCombinations).putInt(serviceIdx).putInt(flowIdx - offsets[i]).putDouble(delays[flowIdx]);
+                    noRecords++;
+                }
+            }
+            writeText(services, newServices);
+            flushRecords();
+            noCombinations++;
+
+            // Update the number of records in the header, without moving the position of the channel
+            ByteBuffer header = header(noRecords);
+            while (header.hasRemaining()) {
+                records.write(header, header.position());
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    private void flushRecords() throws IOException {
+        buffer.flip();
+        writeFully(records, buffer);
+        buffer.clear();
+    }
+
+    /**
+     * @param noRecords number of records in the file
+     * @return NPY header of fixed length, padded with spaces
+     */
+    private static ByteBuffer header(long noRecords) {
+        return header("[('combination', '<i4'), ('service', '<i4'), ('flow', '<i4'), ('delay', '<f8')]", noRecords + ",");
+    }
+
+    /**
+     * @param descr data type of the array, as numpy descriptor
+     * @param shape dimensions of the array, separated by commas
+     * @return NPY header of fixed length, padded with spaces
+     */
+    static ByteBuffer header(String descr, String shape) {
+        String dict = "{'descr': " + descr + ", 'fortran_order': False, 'shape': (" + shape + "), }";
+        StringBuilder header = new StringBuilder(dict);
+        while (header.length() < HEADER_LENGTH - 11) {
+            header.append(' ');
+        }
+        header.append('\n');
+
+        ByteBuffer bytes = ByteBuffer.allocate(HEADER_LENGTH).order(ByteOrder.LITTLE_ENDIAN);
+        bytes.put((byte) 0x93).put("NUMPY".getBytes(StandardCharsets.US_ASCII)).put((byte) 1).put((byte) 0);
+        bytes.putShort((short) (HEADER_LENGTH - 10));
+        bytes.put(header.toString().getBytes(StandardCharsets.US_ASCII));
+        return bytes.flip();
+    }
+
+    @Override
+    public synchronized void close() {
+        try {
+            for (FileChannel channel : List.of(records, combinations, services)) {
+                channel.close();
+            }
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+}
@@ -0,0 +1,168 @@
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Evaluates the Cartesian product of numeric parameter ranges, e.g. packet sizes or link bitrates, and collects the
+ * worst-case delay of every SGS per point in a {@link ResultCube}.
+ * <p>
+ * Every point is analyzed in its own {@link AnalysisSession} with a copy of the base configuration, up to
+ * {@link ExperimentConfig#experimentThreads} points concurrently. The edge and SGS definitions, the topology index
+ * and the service curve cache are shared by all points and not modified; scaled bitrates and bucket sizes are
+ * applied per session.
+ */
+public class ParameterSweep {
+    /**
+     * Parameters which can be swept.
+     * <ul>
+     * <li> MAX_PACKET_SIZE - {@link ExperimentConfig#maxPacketSize} [Byte], the DRR quanta are scaled along
+     * <li> MIN_PACKET_SIZE - {@link ExperimentConfig#minPacketSize} [Byte]
+     * <li> PROPAGATION_DELAY - {@link ExperimentConfig#propagationDelay} [s], added once per server to every flow bound
+     * <li> LINK_BITRATE_SCALE - factor applied to the bitrates of all edges
+     * <li> BUCKET_SIZE_SCALE - factor applied to the token-bucket sizes of all SGSs
+     * </ul>
+     */
+    public enum Parameter {
+        MAX_PACKET_SIZE, MIN_PACKET_SIZE, PROPAGATION_DELAY, LINK_BITRATE_SCALE, BUCKET_SIZE_SCALE
+    }
+
+    private final List<Edge> edgeList;
+    private final TopologyIndex topology;
+    private final ServiceCurveCache curveCache;
+    private final List<SGService> sgServices;
+    private final ExperimentConfig experimentConfig;
+    private final Function<AnalysisSession, AnalysisResult> runner;
+    private final Map<Parameter, double[]> dimensions = new LinkedHashMap<>();
+
+    /**
+     * @param edgeList         edge definitions of the network (only read)
+     * @param topology         index of the edge definitions (only read)
+     * @param curveCache       cache providing the service curves of the servers
+     * @param sgServices       SGS definitions using the network (only read)
+     * @param experimentConfig base configuration of all points, copied per point
+     * @param runner           analyzes the session of a point, e.g. for making it cancellable. Can abort the sweep by
+     *                         throwing an unchecked exception.
+     */
+    public ParameterSweep(List<Edge> edgeList, TopologyIndex topology, ServiceCurveCache curveCache, List<SGService> sgServices,
+                          ExperimentConfig experimentConfig, Function<AnalysisSession, AnalysisResult> runner) {
+        this.edgeList = edgeList;
+        this.topology = topology;
+        this.curveCache = curveCache;
+        this.sgServices = sgServices;
+        this.experimentConfig = experimentConfig;
+        this.runner = runner;
+    }
+
+    /**
+     * Sweep a parameter over the given values. Adding a parameter again replaces its values.
+     *
+     * @param parameter parameter to sweep
+     * @param values    values of the parameter, at least one
+     */
+    public void addDimension(Parameter parameter, double[] values) {
+        if (values.length == 0) {
+            throw new IllegalArgumentException("No values given for " + parameter);
+        }
+        dimensions.put(parameter, values.clone());
+    }
+
+    /**
+     * Sweep a parameter over equidistant values.
+     *
+     * @param parameter parameter to sweep
+     * @param from      first value
+     * @param to        last value (inclusive)
+     * @param steps     number of values, at least one
+     */
+    public void addRange(Parameter parameter, double from, double to, int steps) {
+        double[] values = new double[Math.max(1, steps)];
+        for (int i = 0; i < values.length; i++) {
+            values[i] = values.length == 1 ? from : from + (to - from) * i / (values.length - 1);
+        }
+        addDimension(parameter, values);
+    }
+
+    /**
+     * Evaluate every point of the parameter grid.
+     *
+     * @return worst-case delay of every SGS per point
+     */
+    public ResultCube run() {
+        List<String> names = dimensions.keySet().stream().map(Parameter::name).toList();
+        ResultCube cube = new ResultCube(names, new ArrayList<>(dimensions.values()),
+                sgServices.stream().map(SGService::getName).toArray(String[]::new));
+        int noPoints = cube.getNumberOfPoints();
+        EventLog.info("sweep", "Sweeping %s: %d points", names, noPoints);
+
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(experimentConfig.experimentThreads, noPoints)));
+        try {
+            List<Future<?>> futures = new ArrayList<>(noPoints);
+            for (int point = 0; point < noPoints; point++) {
+                int index = point;
+                futures.add(executor.submit(() -> cube.setDelays(index, evaluate(cube.getIndices(index)))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return cube;
+    }
+
+    /**
+     * @param indices value index of every swept parameter
+     * @return worst-case delay per SGS [ms], NaN for SGSs with a flow without delay bound
+     */
+    private double[] evaluate(int[] indices) {
+        ExperimentConfig pointConfig = experimentConfig.copy();
+        pointConfig.incrementalAnalysis = false;
+        pointConfig.feasibilityOnly = false;
+        double bitrateScale = 1;
+        double bucketScale = 1;
+        int dimension = 0;
+        for (Map.Entry<Parameter, double[]> entry : dimensions.entrySet()) {
+            double value = entry.getValue()[indices[dimension++]];
+            switch (entry.getKey()) {
+                case MAX_PACKET_SIZE -> {
+                    int maxPacketSize = (int) Math.round(value);
+                    for (int i = 0; i < pointConfig.flowQuantils.length; i++) {
+                        pointConfig.flowQuantils[i] = (int) Math.round((double) pointConfig.flowQuantils[i] * maxPacketSize / pointConfig.maxPacketSize);
+                    }
+                    pointConfig.maxPacketSize = maxPacketSize;
+                }
+                case MIN_PACKET_SIZE -> pointConfig.minPacketSize = (int) Math.round(value);
+                case PROPAGATION_DELAY -> pointConfig.propagationDelay = value;
+                case LINK_BITRATE_SCALE -> bitrateScale = value;
+                case BUCKET_SIZE_SCALE -> bucketScale = value;
+            }
+        }
+
+        List<SGService> pointServices = sgServices;
+        if (bucketScale != 1) {
+            pointServices = new ArrayList<>(sgServices.size());
+            for (SGService sgs : sgServices) {
+                pointServices.add(new SGService(sgs.getName(), sgs.getServer(), (int) Math.round(sgs.getBucket_size() * bucketScale),
+                        sgs.getBitrate(), sgs.getDeadline(), sgs.getMultipath(), sgs.getPriority()));
+            }
+        }
+        AnalysisSession session = new AnalysisSession(edgeList, topology, curveCache, pointServices, pointConfig);
+        if (bitrateScale != 1) {
+            Map<Edge, Double> overrides = new HashMap<>();
+            for (Edge edge : edgeList) {
+                overrides.put(edge, edge.getBitrate() * bitrateScale);
+            }
+            session.setBitrateOverrides(overrides);
+        }
+        session.createNCNetwork();
+        return runner.apply(session).getMaxDelays();
+    }
+}
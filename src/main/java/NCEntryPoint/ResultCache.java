@@ -0,0 +1,154 @@
+import java.math.BigInteger;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.*;
+
+/**
+ * Bounded LRU cache for analysis results. The key is a canonical hash over the edges, the SGS definitions
+ * (including their multipaths) and the analysis relevant part of the experiment configuration, see
+ * {@link #computeKey(List, List, ExperimentConfig)}.
+ * <p>
+ * The cache is limited by the number of entries and by the estimated memory of the cached results, the least
+ * recently used results are evicted first. All methods are thread-safe.
+ */
+public class ResultCache {
+    private final LinkedHashMap<String, AnalysisResult> results = new LinkedHashMap<>(16, 0.75f, true);
+    private int maxEntries;
+    private long maxBytes;
+    private long usedBytes = 0;
+    private long hits = 0;
+    private long misses = 0;
+    private long evictions = 0;
+
+    /**
+     * @param maxEntries maximum number of cached results, 0 disables the cache
+     * @param maxBytes   maximum estimated memory of all cached results [Byte]
+     */
+    public ResultCache(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+    }
+
+    /**
+     * Compute the canonical key of an analysis. The edge order does not influence the analysis, therefore the edges
+     * are sorted. The SGS order defines the order inside the result and is kept.
+     *
+     * @param edgeList         edges of the network
+     * @param sgServices       SGSs using the network
+     * @param experimentConfig configuration of the analysis
+     * @return hex encoded SHA-256 hash
+     */
+    public static String computeKey(List<Edge> edgeList, List<SGService> sgServices, ExperimentConfig experimentConfig) {
+        List<String> edges = new ArrayList<>(edgeList.size());
+        for (Edge edge : edgeList) {
+            edges.add(edge.getNodes().get(0) + "\u0000" + edge.getNodes().get(1) + "\u0000" + edge.getBitrate() + "\u0000" + edge.getLatency());
+        }
+        Collections.sort(edges);
+
+        StringBuilder canonical = new StringBuilder();
+        for (String edge : edges) {
+            canonical.append(edge).append('\n');
+        }
+        canonical.append('\u0001');
+        for (SGService sgs : sgServices) {
+            canonical.append(sgs.getName()).append('\u0000')
+                    .append(sgs.getServer()).append('\u0000')
+                    .append(sgs.getBucket_size()).append('\u0000')
+                    .append(sgs.getBitrate()).append('\u0000')
+                    .append(sgs.getDeadline()).append('\u0000')
+                    .append(sgs.getPriority());
+            for (List<String> path : sgs.getMultipath()) {
+                canonical.append('\u0002').append(String.join("\u0000", path));
+            }
+            canonical.append('\n');
+        }
+        canonical.append('\u0001');
+        List<String> config = new ArrayList<>();
+        experimentConfig.writeAnalysisKeyInBuffer(config);
+        canonical.append(String.join("\u0000", config));
+
+        try {
+            byte[] hash = MessageDigest.getInstance("SHA-256").digest(canonical.toString().getBytes(StandardCharsets.UTF_8));
+            return String.format("%064x", new BigInteger(1, hash));
+        } catch (NoSuchAlgorithmException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * @param key key computed by {@link #computeKey(List, List, ExperimentConfig)}
+     * @return the cached result, null if not present
+     */
+    public synchronized AnalysisResult get(String key) {
+        AnalysisResult result = results.get(key);
+        if (result == null) {
+            misses++;
+        } else {
+            hits++;
+        }
+        return result;
+    }
+
+    /**
+     * Add a result to the cache and evict the least recently used results if a limit is exceeded.
+     *
+     * @param key    key computed by {@link #computeKey(List, List, ExperimentConfig)}
+     * @param result result to cache
+     */
+    public synchronized void put(String key, AnalysisResult result) {
+        if (maxEntries <= 0 || result.estimateSize() > maxBytes) {
+            return;
+        }
+        AnalysisResult previous = results.put(key, result);
+        if (previous != null) {
+            usedBytes -= previous.estimateSize();
+        }
+        usedBytes += result.estimateSize();
+        evict();
+    }
+
+    /**
+     * Change the limits of the cache, evicting results if necessary.
+     *
+     * @param maxEntries maximum number of cached results, 0 disables the cache
+     * @param maxBytes   maximum estimated memory of all cached results [Byte]
+     */
+    public synchronized void setLimits(int maxEntries, long maxBytes) {
+        this.maxEntries = maxEntries;
+        this.maxBytes = maxBytes;
+        evict();
+    }
+
+    /**
+     * Remove every cached result, the statistics are kept.
+     */
+    public synchronized void clear() {
+        results.clear();
+        usedBytes = 0;
+    }
+
+    /**
+     * @return hits, misses, evictions, the number of entries and the estimated memory [Byte] of the cache
+     */
+    public synchronized Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        statistics.put("hits", hits);
+        statistics.put("misses", misses);
+        statistics.put("evictions", evictions);
+        statistics.put("entries", (long) results.size());
+        statistics.put("bytes", usedBytes);
+        statistics.put("maxEntries", (long) maxEntries);
+        statistics.put("maxBytes", maxBytes);
+        return statistics;
+    }
+
+    private void evict() {
+        Iterator<AnalysisResult> iterator = results.values().iterator();
+        while (iterator.hasNext() && (results.size() > Math.max(0, maxEntries) || usedBytes > maxBytes)) {
+            usedBytes -= iterator.next().estimateSize();
+            iterator.remove();
+            evictions++;
+        }
+    }
+}
@@ -0,0 +1,152 @@
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * N-dimensional result of a {@link ParameterSweep}: the worst-case delay [ms] of every SGS at every point of the
+ * swept parameter grid. The first dimensions are the swept parameters in the order they were added, the last one
+ * the SGSs. SGSs with a flow without delay bound have the delay NaN.
+ * <p>
+ * The delays are stored row-major in one array, the last dimension varies fastest. The packed getter returns it as
+ * little-endian byte array, which can be read with e.g.
+ * {@code numpy.frombuffer(cube.getDelaysPacked(), dtype='<f8').reshape(cube.getShape())}.
+ */
+public class ResultCube {
+    private final List<String> parameterNames;
+    private final List<double[]> parameterValues;
+    private final String[] serviceNames;
+    private final int[] shape;
+    private final double[] delays;
+
+    /**
+     * @param parameterNames  names of the swept parameters
+     * @param parameterValues values of every swept parameter
+     * @param serviceNames    names of the SGSs
+     */
+    ResultCube(List<String> parameterNames, List<double[]> parameterValues, String[] serviceNames) {
+        this.parameterNames = List.copyOf(parameterNames);
+        this.parameterValues = new ArrayList<>(parameterValues);
+        this.serviceNames = serviceNames.clone();
+        shape = new int[parameterValues.size() + 1];
+        int size = serviceNames.length;
+        for (int i = 0; i < parameterValues.size(); i++) {
+            shape[i] = parameterValues.get(i).length;
+            size *= shape[i];
+        }
+        shape[shape.length - 1] = serviceNames.length;
+        delays = new double[size];
+    }
+
+    /**
+     * @param point        index of the grid point, row-major over the parameters
+     * @param serviceDelay worst-case delay per SGS [ms]
+     */
+    void setDelays(int point, double[] serviceDelay) {
+        System.arraycopy(serviceDelay, 0, delays, point * serviceNames.length, serviceNames.length);
+    }
+
+    /**
+     * @return number of grid points
+     */
+    public int getNumberOfPoints() {
+        return serviceNames.length == 0 ? 0 : delays.length / serviceNames.length;
+    }
+
+    /**
+     * @param point index of the grid point, row-major over the parameters
+     * @return value index of every parameter at the grid point
+     */
+    public int[] getIndices(int point) {
+        int[] indices = new int[parameterValues.size()];
+        for (int i = indices.length - 1; i >= 0; i--) {
+            indices[i] = point % shape[i];
+            point /= shape[i];
+        }
+        return indices;
+    }
+
+    public int[] getShape() {
+        return shape.clone();
+    }
+
+    public String[] getParameterNames() {
+        return parameterNames.toArray(new String[0]);
+    }
+
+    /**
+     * @param dimension index of the parameter
+     * @return swept values of the parameter
+     */
+    public double[] getParameterValues(int dimension) {
+        return parameterValues.get(dimension).clone();
+    }
+
+    public String[] getServiceNames() {
+        return serviceNames.clone();
+    }
+
+    /**
+     * @return all worst-case delays [ms], row-major
+     */
+    public double[] getDelays() {
+        return delays.clone();
+    }
+
+    /**
+     * @param indices value index of every parameter
+     * @param service index of the SGS
+     * @return worst-case delay [ms] of the SGS at the grid point
+     */
+    public double getDelay(int[] indices, int service) {
+        int point = 0;
+        for (int i = 0; i < indices.length; i++) {
+            point = point * shape[i] + indices[i];
+        }
+        return delays[point * serviceNames.length + service];
+    }
+
+    /**
+     * @return {@link #getDelays()} as little-endian doubles
+     */
+    public byte[] getDelaysPacked() {
+        ByteBuffer buffer = ByteBuffer.allocate(delays.length * Double.BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        buffer.asDoubleBuffer().put(delays);
+        return buffer.array();
+    }
+
+    /**
+     * Export the cube into a (newly created) folder: the delays as NPY file of the cube's shape, the axes as
+     * "_axes.csv" (one row per parameter with its values, the last row with the SGS names).
+     *
+     * @param folderName folder to write the files into
+     * @param prefix     prefix of the file names, see {@link ResultSink#open(ResultSink.Format, String, String)}
+     * @return path of the NPY file
+     */
+    public Path export(String folderName, String prefix) {
+        Path basePath = ResultSink.createBasePath(folderName, prefix);
+        Path npyPath = basePath.resolveSibling(basePath.getFileName() + ".npy");
+        String dims = String.join(", ", Arrays.stream(shape).mapToObj(String::valueOf).toList());
+        try (FileChannel npy = ResultSink.openChannel(npyPath);
+             FileChannel axes = ResultSink.openChannel(basePath.resolveSibling(basePath.getFileName() + "_axes.csv"))) {
+            ResultSink.writeFully(npy, NpyResultSink.header("'<f8'", shape.length == 1 ? dims + "," : dims));
+            ResultSink.writeFully(npy, ByteBuffer.wrap(getDelaysPacked()));
+
+            StringBuilder text = new StringBuilder();
+            for (int i = 0; i < parameterNames.size(); i++) {
+                text.append(parameterNames.get(i));
+                Arrays.stream(parameterValues.get(i)).forEach(value -> text.append(';').append(value));
+                text.append(System.lineSeparator());
+            }
+            text.append("Service;").append(String.join(";", serviceNames)).append(System.lineSeparator());
+            ResultSink.writeText(axes, text);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+        return npyPath;
+    }
+}
@@ -0,0 +1,131 @@
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.text.SimpleDateFormat;
+import java.util.Date;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Destination for analysis results which writes every result as soon as it is handed over, instead of collecting the
+ * whole experiment log in memory. Results already written survive a crash of a later analysis.
+ * <p>
+ * Sinks are created by {@link #open(Format, String, String)} and have to be closed after the last result.
+ * IO errors are thrown as {@link RuntimeException}.
+ */
+public abstract class ResultSink implements AutoCloseable {
+    // Base paths handed out within the current second
+    private static final Set<Path> usedBasePaths = new HashSet<>();
+    private static String usedSuffix = "";
+    private final Path basePath;
+
+    /**
+     * Supported output formats.
+     * <ul>
+     * <li> CSV - one row per result, as written by {@link AnalysisResult#writeResultInBuffer(java.util.List)}
+     * <li> NPY - columnar binary format, see {@link NpyResultSink}
+     * </ul>
+     */
+    public enum Format {
+        CSV, NPY
+    }
+
+    /**
+     * Create a sink writing into a (newly created) folder. The file name consists of the prefix, "Log_" and a
+     * timestamp.
+     *
+     * @param format     output format
+     * @param folderName folder to write the files into
+     * @param prefix     prefix of the file name
+     * @return the opened sink
+     */
+    public static ResultSink open(Format format, String folderName, String prefix) {
+        Path basePath = createBasePath(folderName, prefix);
+        try {
+            return switch (format) {
+                case CSV -> new CsvResultSink(basePath);
+                case NPY -> new NpyResultSink(basePath);
+            };
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Create the folder, if not present, and the path of the files without extension: the prefix, "Log_" and a
+     * timestamp.
+     *
+     * @param folderName folder to write the files into
+     * @param prefix     prefix of the file name
+     * @return path of the files without extension
+     */
+    static synchronized Path createBasePath(String folderName, String prefix) {
+        File directory = new File(folderName);
+        if (!directory.exists() && !directory.mkdir()) {
+            throw new RuntimeException(new IOException("Error when creating folder " + folderName + " for exporting results."));
+        }
+        String fileSuffix = new SimpleDateFormat("yyyyMMddHHmmss").format(new Date());
+        if (!fileSuffix.equals(usedSuffix)) {
+            usedBasePaths.clear();
+            usedSuffix = fileSuffix;
+        }
+        Path basePath = directory.toPath().resolve(prefix + "Log_" + fileSuffix);
+        // Sessions exporting within the same second get distinct files
+        for (int i = 2; !usedBasePaths.add(basePath.toAbsolutePath()); i++) {
+            basePath = directory.toPath().resolve(prefix + "Log_" + fileSuffix + "_" + i);
+        }
+        return basePath;
+    }
+
+    /**
+     * @param basePath path of the written files without extension
+     */
+    ResultSink(Path basePath) {
+        this.basePath = basePath;
+    }
+
+    /**
+     * Write metrics into a CSV file next to the results ("_metrics.csv"), replacing previously written metrics.
+     *
+     * @param metrics metrics to write, see {@link AnalysisMetrics#snapshot()}
+     */
+    public void writeMetrics(Map<String, Double> metrics) {
+        StringBuilder text = new StringBuilder("Metric;Value").append(System.lineSeparator());
+        metrics.forEach((name, value) -> text.append(name).append(';').append(value).append(System.lineSeparator()));
+        try (FileChannel channel = openChannel(basePath.resolveSibling(basePath.getFileName() + "_metrics.csv"))) {
+            writeText(channel, text);
+        } catch (IOException e) {
+            throw new RuntimeException(e);
+        }
+    }
+
+    /**
+     * Write one result. The data is handed over to the file system before returning.
+     *
+     * @param result result to write
+     */
+    public abstract void write(AnalysisResult result);
+
+    @Override
+    public abstract void close();
+
+    static FileChannel openChannel(Path path) throws IOException {
+        return FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    static void writeFully(FileChannel channel, ByteBuffer buffer) throws IOException {
+        while (buffer.hasRemaining()) {
+            channel.write(buffer);
+        }
+    }
+
+    static void writeText(FileChannel channel, CharSequence text) throws IOException {
+        writeFully(channel, StandardCharsets.UTF_8.encode(text.toString()));
+    }
+}
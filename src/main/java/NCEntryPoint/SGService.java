@@ -1,8 +1,9 @@
-import org.networkcalculus.dnc.network.server_graph.Flow;
-
-import java.util.ArrayList;
 import java.util.List;
 
+/**
+ * Definition of a smart grid service. The flows of a service are bound per {@link AnalysisSession},
+ * the service itself is immutable.
+ */
 public class SGService {
     private final String name;
     private final String server;
@@ -10,7 +11,6 @@ public class SGService {
     private final int bitrate;
     private final double deadline;
     private final List<List<String>> multipath;
-    private final List<Flow> flows = new ArrayList<>();
     private final FlowPriority priority;
 
     public SGService(String name, String servername, int bucket_size, int bitrate, double deadline, List<List<String>> multipath, FlowPriority priority) {
@@ -23,10 +23,6 @@ public class SGService {
         this.priority = priority;
     }
 
-    public List<Flow> getFlows() {
-        return flows;
-    }
-
     public String getName() {
         return name;
     }
@@ -47,10 +43,6 @@ public class SGService {
         return multipath;
     }
 
-    public void addFlow(Flow flow) {
-        flows.add(flow);
-    }
-
     public double getDeadline() {
         return deadline;
     }
@@ -58,7 +50,4 @@ public class SGService {
     public FlowPriority getPriority() {
         return priority;
     }
-    public void resetFlowList(){
-        this.flows.clear();
-    }
 }
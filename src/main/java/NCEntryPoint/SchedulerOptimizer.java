@@ -0,0 +1,193 @@
+import java.util.*;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.function.Function;
+
+/**
+ * Searches the scheduler parameters maximizing the minimal deadline slack of all SGSs: the flow weights for WFQ and
+ * WRR ({@link ExperimentConfig#flowWeights}), the quanta for DRR ({@link ExperimentConfig#flowQuantils}).
+ * <p>
+ * Every priority gets an integer multiplier from 1 to a maximum, used as weight or as multiple of the maximum packet
+ * size for the quanta. Multiplying all parameters by the same factor keeps the service rates, but increases the
+ * latencies (WRR, DRR) or changes nothing (WFQ). Such dominated settings are skipped, only settings with a greatest
+ * common divisor of 1 are evaluated.
+ * <p>
+ * The settings are evaluated in parallel by up to {@link ExperimentConfig#experimentThreads} threads, each in its own
+ * session in feasibility mode. The analysis of a setting stops as soon as it can't beat the best slack known so far
+ * (see {@link AnalysisSession#setRequiredSlack(double)}).
+ */
+public class SchedulerOptimizer {
+    /**
+     * Best setting found.
+     *
+     * @param parameters weights (WFQ, WRR) or quanta [Byte] (DRR) in the order of the priorities
+     * @param minSlack   minimal deadline slack of all SGSs [ms], negative infinity if a flow has no delay bound
+     */
+    public record Setting(int[] parameters, double minSlack) {
+        @Override
+        public String toString() {
+            return Arrays.toString(parameters) + String.format(" (min. slack %.2fms)", minSlack);
+        }
+    }
+
+    private final List<Edge> edgeList;
+    private final TopologyIndex topology;
+    private final ServiceCurveCache curveCache;
+    private final List<SGService> sgServices;
+    private final ExperimentConfig experimentConfig;
+    private final Function<AnalysisSession, AnalysisResult> runner;
+    private int maxMultiplier = 8;
+    private Setting best;
+    // Index of the best candidate, for preferring earlier candidates on equal slack
+    private int bestIndex;
+
+    /**
+     * @param edgeList         edge definitions of the network (only read)
+     * @param topology         index of the edge definitions (only read)
+     * @param curveCache       cache providing the service curves of the servers
+     * @param sgServices       SGS definitions using the network (only read)
+     * @param experimentConfig configuration to optimize, copied per setting. The scheduling policy has to be WFQ, WRR
+     *                         or DRR.
+     * @param runner           analyzes a session, e.g. for making it cancellable. Can abort the search by throwing an
+     *                         unchecked exception.
+     */
+    public SchedulerOptimizer(List<Edge> edgeList, TopologyIndex topology, ServiceCurveCache curveCache, List<SGService> sgServices,
+                              ExperimentConfig experimentConfig, Function<AnalysisSession, AnalysisResult> runner) {
+        if (experimentConfig.schedulingPolicy != ExperimentConfig.SchedulingPolicy.WFQ
+                && experimentConfig.schedulingPolicy != ExperimentConfig.SchedulingPolicy.WRR
+                && experimentConfig.schedulingPolicy != ExperimentConfig.SchedulingPolicy.DRR) {
+            throw new IllegalArgumentException("Scheduling policy " + experimentConfig.schedulingPolicy + " has no weights to optimize.");
+        }
+        this.edgeList = edgeList;
+        this.topology = topology;
+        this.curveCache = curveCache;
+        this.sgServices = sgServices;
+        this.experimentConfig = experimentConfig;
+        this.runner = runner;
+    }
+
+    /**
+     * @param maxMultiplier highest weight, respectively multiple of the maximum packet size for the quanta
+     */
+    public void setMaxMultiplier(int maxMultiplier) {
+        this.maxMultiplier = Math.max(1, maxMultiplier);
+    }
+
+    /**
+     * Evaluate all non-dominated settings, starting with the uniform one.
+     *
+     * @return the setting with the highest minimal deadline slack
+     */
+    public Setting optimize() {
+        List<int[]> candidates = new ArrayList<>();
+        int noPrios = FlowPriority.values().length;
+        int[] multipliers = new int[noPrios];
+        Arrays.fill(multipliers, 1);
+        do {
+            if (gcd(multipliers) == 1) {
+                candidates.add(multipliers.clone());
+            }
+        } while (next(multipliers));
+        EventLog.info("optimizer", "Optimizing %s parameters: %d candidates", experimentConfig.schedulingPolicy, candidates.size());
+
+        best = null;
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, Math.min(experimentConfig.experimentThreads, candidates.size())));
+        try {
+            List<Future<?>> futures = new ArrayList<>();
+            for (int i = 0; i < candidates.size(); i++) {
+                int index = i;
+                futures.add(executor.submit(() -> evaluate(index, candidates.get(index))));
+            }
+            for (Future<?> future : futures) {
+                future.get();
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } finally {
+            executor.shutdownNow();
+        }
+        return best;
+    }
+
+    /**
+     * Write the parameters of a setting into a configuration.
+     *
+     * @param config  configuration to modify
+     * @param setting setting to apply
+     */
+    public static void apply(ExperimentConfig config, Setting setting) {
+        if (config.schedulingPolicy == ExperimentConfig.SchedulingPolicy.DRR) {
+            System.arraycopy(setting.parameters(), 0, config.flowQuantils, 0, config.flowQuantils.length);
+        } else {
+            config.flowWeights = setting.parameters().clone();
+        }
+    }
+
+    private void evaluate(int index, int[] multipliers) {
+        int[] parameters = multipliers.clone();
+        if (experimentConfig.schedulingPolicy == ExperimentConfig.SchedulingPolicy.DRR) {
+            for (int i = 0; i < parameters.length; i++) {
+                parameters[i] *= experimentConfig.maxPacketSize;
+            }
+        }
+        ExperimentConfig candidateConfig = experimentConfig.copy();
+        candidateConfig.feasibilityOnly = true;
+        candidateConfig.incrementalAnalysis = false;
+        apply(candidateConfig, new Setting(parameters, 0));
+
+        AnalysisSession session = new AnalysisSession(edgeList, topology, curveCache, sgServices, candidateConfig);
+        // Stop as soon as the candidate can't beat the best one
+        session.setRequiredSlack(getBestSlack());
+        session.createNCNetwork();
+        AnalysisResult result = runner.apply(session);
+        // Negative infinity if a flow has no bound or the analysis stopped early
+        double minSlack = result.getMinSlack();
+        synchronized (this) {
+            if (best == null || minSlack > best.minSlack() || (minSlack == best.minSlack() && index < bestIndex)) {
+                best = new Setting(parameters, minSlack);
+                bestIndex = index;
+                EventLog.info("optimizer", "New best setting: %s", best.toString());
+            }
+        }
+    }
+
+    private synchronized double getBestSlack() {
+        return best == null ? Double.NEGATIVE_INFINITY : best.minSlack();
+    }
+
+    /**
+     * Advance the multipliers to the next combination, like a counter.
+     *
+     * @return false after the last combination
+     */
+    private boolean next(int[] multipliers) {
+        for (int i = multipliers.length - 1; i >= 0; i--) {
+            if (multipliers[i] < maxMultiplier) {
+                multipliers[i]++;
+                return true;
+            }
+            multipliers[i] = 1;
+        }
+        return false;
+    }
+
+    private static int gcd(int[] values) {
+        int gcd = 0;
+        for (int value : values) {
+            int a = gcd;
+            int b = value;
+            while (b != 0) {
+                int t = a % b;
+                a = b;
+                b = t;
+            }
+            gcd = a;
+        }
+        return gcd;
+    }
+}
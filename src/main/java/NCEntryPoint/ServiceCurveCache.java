@@ -0,0 +1,196 @@
+import org.networkcalculus.dnc.curves.Curve;
+import org.networkcalculus.dnc.curves.ServiceCurve;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Cache for the service curves of the NC servers. Real networks only have a handful of distinct link classes, the
+ * service curves of all edges of one class are therefore created once and shared among the servers (and sessions).
+ * <p>
+ * The key consists of every parameter the curves depend on: bitrate, link delay (only if used), scheduling policy,
+ * flow weights and quantils, packet sizes, packetizer usage and the number of priorities.
+ * The cached curves are never modified after their creation. All methods are thread-safe.
+ */
+public class ServiceCurveCache {
+    private final Map<CurveKey, List<ServiceCurve>> curves = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final AtomicLong hits = new AtomicLong();
+    private final AtomicLong misses = new AtomicLong();
+
+    /**
+     * @param maxEntries maximum number of cached curve sets, the cache is emptied when exceeded
+     */
+    public ServiceCurveCache(int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Get the service curves of one edge, creating them if necessary.
+     *
+     * @param bitrate     link bitrate of the edge [Byte/s]
+     * @param linkLatency link delay of the edge [s]
+     * @param expConfig   Experiment config to use, including priorities and scheduling parameters
+     * @param noPrios     number of priority service curves
+     * @param simple      true if simple service curves, not taking any scheduling algorithm into account, are needed
+     * @return unmodifiable list of service curves in increasing priority order
+     */
+    public List<ServiceCurve> getServiceCurves(double bitrate, double linkLatency, ExperimentConfig expConfig, int noPrios, boolean simple) {
+        ExperimentConfig.SchedulingPolicy policy = simple ? ExperimentConfig.SchedulingPolicy.None : expConfig.schedulingPolicy;
+        // The link delay is only part of the simple service curves
+        double usedLatency = (policy == ExperimentConfig.SchedulingPolicy.None && expConfig.useGivenLinkDelay) ? linkLatency : 0;
+        CurveKey key = new CurveKey(bitrate, usedLatency, policy, List.of(Arrays.stream(expConfig.flowWeights).boxed().toArray(Integer[]::new)),
+                List.of(Arrays.stream(expConfig.flowQuantils).boxed().toArray(Integer[]::new)), expConfig.maxPacketSize,
+                expConfig.minPacketSize, expConfig.usePacketizer, expConfig.useGivenLinkDelay, noPrios);
+
+        List<ServiceCurve> serviceCurves = curves.get(key);
+        if (serviceCurves != null) {
+            hits.incrementAndGet();
+            return serviceCurves;
+        }
+        misses.incrementAndGet();
+        if (curves.size() >= maxEntries) {
+            curves.clear();
+        }
+        return curves.computeIfAbsent(key, k -> Collections.unmodifiableList(simple ?
+                createSimpleServiceCurves(bitrate, linkLatency, expConfig, noPrios) :
+                createServiceCurves(bitrate, linkLatency, expConfig, noPrios)));
+    }
+
+    /**
+     * @return hits, misses and the number of cached curve sets
+     */
+    public Map<String, Long> getStatistics() {
+        Map<String, Long> statistics = new LinkedHashMap<>();
+        statistics.put("hits", hits.get());
+        statistics.put("misses", misses.get());
+        statistics.put("entries", (long) curves.size());
+        return statistics;
+    }
+
+    /**
+     * Create noPrios service curves for one edge, according to the scheduling
+     * and other configuration parameters defined in expConfig
+     *
+     * @param bitrate     link bitrate of the edge [Byte/s]
+     * @param linkLatency link delay of the edge [s]
+     * @param expConfig   Experiment config to use, including priorities and scheduling parameters
+     * @param noPrios     number of priority service curves shall be created
+     * @return List of Service curves in increasing priority order
+     */
+    private static List<ServiceCurve> createServiceCurves(double bitrate, double linkLatency, ExperimentConfig expConfig, int noPrios) {
+        // Define base service curve for this server
+        double rate;
+        double latency = 0;
+        List<ServiceCurve> serviceCurves = new ArrayList<>();
+
+        switch (expConfig.schedulingPolicy) {
+            case None -> serviceCurves = createSimpleServiceCurves(bitrate, linkLatency, expConfig, noPrios);
+            case SP -> {
+                // The strict priority service curve is the link-service curve - the cross-traffic arrival
+                // ==> The cross-traffic subtraction is done at other ends
+                rate = bitrate;
+                if (expConfig.usePacketizer) {
+                    //  The packetized SP is b_SP = b - a - l_max [- l_max]
+                    //  One (- l_max) because we have to wait for the lower priority packet which gets served
+                    //  --> not for the lowest priority
+                    //  And one (- l_max) to account for the packetizer (transmission delay)
+                    latency = expConfig.maxPacketSize / bitrate;
+                }
+                // latency is 0 for non-packetized SP
+                for (int i = 0; i < noPrios - 1; i++) {
+                    // For all priorities unequal the lowest priority, b = b - a - l_max*2
+                    serviceCurves.add(Curve.getFactory().createRateLatency(rate, 2 * latency));
+                }
+                // For the lowest priority it would only be one time l_max (transmission delay)
+                serviceCurves.add(Curve.getFactory().createRateLatency(rate, latency));
+            }
+            case WFQ -> {
+                if (expConfig.usePacketizer) {   // PGPS aka WFQ
+                    // 1 * l_max for waiting to be scheduled + 1 * l_max for packetizer
+                    latency = (2 * expConfig.maxPacketSize) / bitrate;
+                }
+                // From here it is simple GPS, PGPS just accounts for the latency component
+                // GPS just splits the link-rate among the priorities.
+                // Weights according to the experimentConfiguration
+
+                // Calculate the sum of all flow weights for percentage calculation
+                double sumWeights = Arrays.stream(expConfig.flowWeights).sum();
+                // Iterate over every flow priority and define service curve as w_i /Ew * r
+                for (int i = 0; i < noPrios; i++) {
+                    rate = (expConfig.flowWeights[i] / sumWeights) * bitrate;
+                    serviceCurves.add(Curve.getFactory().createRateLatency(rate, latency));
+                }
+            }
+            case DRR -> {
+                // Deficit Round Robin is always packetized
+                // see eq. 3.34
+                int l_max = expConfig.maxPacketSize;
+                int L = l_max * noPrios;
+                double F = Arrays.stream(expConfig.flowQuantils).sum();
+                double C = bitrate;
+                for (int i = 0; i < noPrios; i++) {
+                    int Q_i = expConfig.flowQuantils[i];
+
+                    // added Q_i/Q_i simplification into eq 3.34 for this formulation.
+                    latency = ((Q_i * (L - l_max)) + ((F - Q_i) * (Q_i + l_max)) + (Q_i * l_max)) / (Q_i * C);
+                    rate = (Q_i / F) * C;
+                    serviceCurves.add(Curve.getFactory().createRateLatency(rate, latency));
+                }
+            }
+            case WRR -> {
+                // Weighted Round Robin is always packetized, there is no unpacketized version!
+                // see Eq. 3.32
+                int l_min = expConfig.minPacketSize;
+                int l_max = expConfig.maxPacketSize;
+                for (int i = 0; i < noPrios; i++) {
+                    int w_i = expConfig.flowWeights[i];
+                    double q_i = w_i * l_min;
+                    double Q_i = (Arrays.stream(expConfig.flowWeights).sum() - w_i) * l_max;
+
+                    latency = (Q_i + l_max) / bitrate;
+                    rate = (q_i / (q_i + Q_i)) * bitrate;
+                    serviceCurves.add(Curve.getFactory().createRateLatency(rate, latency));
+                }
+            }
+        }
+        return serviceCurves;
+    }
+
+    /**
+     * Create noPrios simple service curves for one edge, not taking any scheduling algorithm into account
+     *
+     * @param bitrate     link bitrate of the edge [Byte/s]
+     * @param linkLatency link delay of the edge [s]
+     * @param expConfig   Experiment config to use, including priorities and scheduling parameters
+     * @param noPrios     number of service curves which shall be created
+     * @return List of Service curves in increasing priority order
+     */
+    private static List<ServiceCurve> createSimpleServiceCurves(double bitrate, double linkLatency, ExperimentConfig expConfig, int noPrios) {
+        double latency = 0;
+        List<ServiceCurve> serviceCurves = new ArrayList<>();
+        // model the link simply as a combination of the packet burst + link rate
+        if (expConfig.usePacketizer) {
+            latency = expConfig.maxPacketSize / bitrate;
+        }
+
+        if (expConfig.useGivenLinkDelay) {
+            //TODO: Talk with Kai-Steffen if we should delete that
+            latency += linkLatency;
+        }
+        double rate = bitrate;
+        for (int i = 0; i < noPrios; i++) {
+            serviceCurves.add(Curve.getFactory().createRateLatency(rate, latency));
+        }
+        return serviceCurves;
+    }
+
+    /**
+     * Every parameter the service curves of one edge depend on.
+     */
+    private record CurveKey(double bitrate, double latency, ExperimentConfig.SchedulingPolicy policy,
+                            List<Integer> flowWeights, List<Integer> flowQuantils, int maxPacketSize,
+                            int minPacketSize, boolean usePacketizer, boolean useGivenLinkDelay, int noPrios) {
+    }
+}
@@ -0,0 +1,96 @@
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Gateway entry point serving multiple independent clients from one JVM. Every client creates its own session, an
+ * {@link NCEntryPoint} with its own network elements, configuration, result cache and metrics, and uses it like the
+ * single entry point of the legacy mode:
+ * <pre>
+ * session_id = gateway.entry_point.createSession()
+ * nc = gateway.entry_point.getSession(session_id)
+ * nc.addEdge(...)
+ * ...
+ * gateway.entry_point.closeSession(session_id)
+ * </pre>
+ * The service curve cache and the threads running the jobs (see {@link JobManager}) are shared by all sessions.
+ * All methods are thread-safe, the methods of one session are serialized (except for cancelling, jobs and polling
+ * metrics).
+ */
+public class SessionManager {
+    private final Map<String, NCEntryPoint> sessions = new ConcurrentHashMap<>();
+    private final ServiceCurveCache curveCache = new ServiceCurveCache(4096);
+    private final ExecutorService jobExecutor = JobManager.createExecutor(Runtime.getRuntime().availableProcessors());
+    private final AtomicLong sessionCounter = new AtomicLong();
+
+    /**
+     * Create a new, empty session. To be called via Python.
+     *
+     * @return id of the session
+     */
+    @SuppressWarnings("unused")
+    public String createSession() {
+        String sessionId = "session-" + sessionCounter.incrementAndGet();
+        sessions.put(sessionId, new NCEntryPoint(curveCache, new JobManager(jobExecutor)));
+        return sessionId;
+    }
+
+    /**
+     * Look up a session. To be called via Python.
+     *
+     * @param sessionId id returned by {@link #createSession()}
+     * @return the entry point of the session
+     * @throws NoSuchElementException if no session with the id exists
+     */
+    @SuppressWarnings("unused")
+    public NCEntryPoint getSession(String sessionId) {
+        NCEntryPoint session = sessions.get(sessionId);
+        if (session == null) {
+            throw new NoSuchElementException("No session " + sessionId);
+        }
+        return session;
+    }
+
+    /**
+     * Close a session: its jobs and a running analysis are cancelled and the session is removed.
+     * To be called via Python.
+     *
+     * @param sessionId id returned by {@link #createSession()}
+     * @return false if no session with the id exists
+     */
+    @SuppressWarnings("unused")
+    public boolean closeSession(String sessionId) {
+        NCEntryPoint session = sessions.remove(sessionId);
+        if (session == null) {
+            return false;
+        }
+        session.close();
+        return true;
+    }
+
+    /**
+     * @return ids of all open sessions
+     */
+    @SuppressWarnings("unused")
+    public List<String> getSessionIds() {
+        return new ArrayList<>(sessions.keySet());
+    }
+
+    /**
+     * @return hits, misses and the number of cached curve sets of the shared service curve cache
+     */
+    @SuppressWarnings("unused")
+    public Map<String, Long> getServiceCurveCacheStatistics() {
+        return curveCache.getStatistics();
+    }
+
+    /**
+     * Set the level of the console output of all sessions, see {@link NCEntryPoint#setLogLevel(String)}.
+     * To be called via Python.
+     */
+    @SuppressWarnings("unused")
+    public void setLogLevel(String level) {
+        EventLog.setLevel(EventLog.Level.valueOf(level.toUpperCase()));
+    }
+}
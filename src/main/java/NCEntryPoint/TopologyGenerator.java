@@ -0,0 +1,186 @@
+import java.util.*;
+
+/**
+ * Seeded generator for synthetic smart grid communication networks, used for scaling experiments and benchmarks.
+ * <p>
+ * Three topology types are supported:
+ * <ul>
+ * <li> {@link TopologyType#RADIAL} - feeders as chains of hubs, starting at the substation hub "H0"
+ * <li> {@link TopologyType#RING} - like radial, but the end of every feeder is connected back to "H0" (ring main units)
+ * <li> {@link TopologyType#MESH} - meshed backbone: a ring of hubs with additional random chords
+ * </ul>
+ * Field devices ("F*") are attached to random hubs, the control servers ("S*") to the substation hub (radial, ring)
+ * or to random backbone hubs (mesh). Every link is added in both directions.
+ * <p>
+ * Every generated SGS runs on one control server and receives data from one or multiple field devices. Its multipath
+ * consists of the shortest path of every field device to the server. Priorities, token-bucket parameters and
+ * deadlines are drawn from realistic ranges, the deadline depends on the priority.
+ */
+public class TopologyGenerator {
+    /**
+     * Supported topology types.
+     */
+    public enum TopologyType {
+        RADIAL, RING, MESH
+    }
+
+    // Link bitrates [Byte/s] of the different link classes
+    private static final double SERVER_BITRATE = 125E6;     // 1 Gbit/s
+    private static final double BACKBONE_BITRATE = 12.5E6;  // 100 Mbit/s
+    private static final double DEVICE_BITRATE = 1.25E6;    // 10 Mbit/s
+    private static final double LINK_LATENCY = 1E-5;        // [s]
+    private static final int HUBS_PER_FEEDER = 8;
+
+    private final Random random;
+    private final Map<String, List<String>> adjacency = new LinkedHashMap<>();
+    private int maxDevicesPerService = 8;
+
+    /**
+     * @param seed seed of the random generator, equal seeds and parameters generate equal networks
+     */
+    public TopologyGenerator(long seed) {
+        this.random = new Random(seed);
+    }
+
+    /**
+     * @param maxDevicesPerService maximum number of field devices (aka paths) per SGS
+     */
+    public void setMaxDevicesPerService(int maxDevicesPerService) {
+        this.maxDevicesPerService = Math.max(1, maxDevicesPerService);
+    }
+
+    /**
+     * Generate a network and add its edges and SGSs to the entry point.
+     *
+     * @param entryPoint   entry point to add the network elements to
+     * @param type         topology type
+     * @param fieldDevices number of field devices
+     * @param hubs         number of hubs
+     * @param servers      number of control servers
+     * @param services     number of SGSs
+     */
+    public void generate(NCEntryPoint entryPoint, TopologyType type, int fieldDevices, int hubs, int servers, int services) {
+        if (fieldDevices < 1 || hubs < 1 || servers < 1) {
+            throw new IllegalArgumentException("At least one field device, hub and server is needed.");
+        }
+        adjacency.clear();
+
+        // Backbone
+        switch (type) {
+            case RADIAL, RING -> {
+                for (int h = 1; h < hubs; h++) {
+                    // The first hub of each feeder is connected to the substation, every other one to its predecessor
+                    boolean feederStart = (h - 1) % HUBS_PER_FEEDER == 0;
+                    addLink(entryPoint, feederStart ? "H0" : "H" + (h - 1), "H" + h, BACKBONE_BITRATE);
+                    boolean feederEnd = h % HUBS_PER_FEEDER == 0 || h == hubs - 1;
+                    if (type == TopologyType.RING && feederEnd && !feederStart) {
+                        addLink(entryPoint, "H" + h, "H0", BACKBONE_BITRATE);
+                    }
+                }
+            }
+            case MESH -> {
+                for (int h = 1; h < hubs; h++) {
+                    addLink(entryPoint, "H" + (h - 1), "H" + h, BACKBONE_BITRATE);
+                }
+                if (hubs > 2) {
+                    addLink(entryPoint, "H" + (hubs - 1), "H0", BACKBONE_BITRATE);
+                }
+                for (int c = 0; c < hubs / 2; c++) {
+                    String hub1 = "H" + random.nextInt(hubs);
+                    String hub2 = "H" + random.nextInt(hubs);
+                    if (!hub1.equals(hub2) && !adjacency.getOrDefault(hub1, List.of()).contains(hub2)) {
+                        addLink(entryPoint, hub1, hub2, BACKBONE_BITRATE);
+                    }
+                }
+            }
+        }
+        if (hubs == 1) {
+            adjacency.computeIfAbsent("H0", k -> new ArrayList<>());
+        }
+
+        // Control servers and field devices
+        for (int s = 0; s < servers; s++) {
+            String hub = type == TopologyType.MESH ? "H" + random.nextInt(hubs) : "H0";
+            addLink(entryPoint, "S" + s, hub, SERVER_BITRATE);
+        }
+        for (int f = 0; f < fieldDevices; f++) {
+            addLink(entryPoint, "F" + f, "H" + random.nextInt(hubs), DEVICE_BITRATE);
+        }
+
+        // Shortest path trees towards every server
+        List<Map<String, String>> nextHops = new ArrayList<>(servers);
+        for (int s = 0; s < servers; s++) {
+            nextHops.add(shortestPathTree("S" + s));
+        }
+
+        // Services
+        for (int i = 0; i < services; i++) {
+            int server = random.nextInt(servers);
+            int noDevices = 1 + random.nextInt(Math.min(maxDevicesPerService, fieldDevices));
+            Set<Integer> devices = new LinkedHashSet<>();
+            while (devices.size() < noDevices) {
+                devices.add(random.nextInt(fieldDevices));
+            }
+            List<List<String>> multipath = new ArrayList<>(noDevices);
+            for (int device : devices) {
+                multipath.add(path("F" + device, "S" + server, nextHops.get(server)));
+            }
+
+            // 20 % high, 30 % medium, 50 % low priority
+            double prioDraw = random.nextDouble();
+            int priority = prioDraw < 0.2 ? 0 : (prioDraw < 0.5 ? 1 : 2);
+            double deadline = switch (priority) {
+                case 0 -> 0.01 + random.nextDouble() * 0.04;   // 10 - 50 ms
+                case 1 -> 0.05 + random.nextDouble() * 0.15;   // 50 - 200 ms
+                default -> 0.2 + random.nextDouble() * 0.8;    // 200 - 1000 ms
+            };
+            int bucketSize = 64 + random.nextInt(192);          // one packet of 64 - 255 Byte
+            int bitrate = 50 + random.nextInt(1950);            // 50 - 2000 Byte/s
+            entryPoint.addSGService("SGS" + i, "S" + server, bucketSize, bitrate, deadline, multipath, priority);
+        }
+    }
+
+    private void addLink(NCEntryPoint entryPoint, String node1, String node2, double bitrate) {
+        entryPoint.addEdge(node1, node2, bitrate, LINK_LATENCY);
+        entryPoint.addEdge(node2, node1, bitrate, LINK_LATENCY);
+        adjacency.computeIfAbsent(node1, k -> new ArrayList<>()).add(node2);
+        adjacency.computeIfAbsent(node2, k -> new ArrayList<>()).add(node1);
+    }
+
+    /**
+     * Breadth-first search from a server. Field devices are never used as transit nodes.
+     *
+     * @param server root of the tree
+     * @return next hop towards the server for every reachable node
+     */
+    private Map<String, String> shortestPathTree(String server) {
+        Map<String, String> nextHop = new HashMap<>();
+        nextHop.put(server, null);
+        Deque<String> queue = new ArrayDeque<>();
+        queue.add(server);
+        while (!queue.isEmpty()) {
+            String node = queue.poll();
+            if (node.startsWith("F")) {
+                continue;
+            }
+            for (String neighbor : adjacency.getOrDefault(node, List.of())) {
+                if (!nextHop.containsKey(neighbor)) {
+                    nextHop.put(neighbor, node);
+                    queue.add(neighbor);
+                }
+            }
+        }
+        return nextHop;
+    }
+
+    private static List<String> path(String device, String server, Map<String, String> nextHop) {
+        List<String> path = new ArrayList<>();
+        for (String node = device; node != null; node = nextHop.get(node)) {
+            path.add(node);
+        }
+        if (!path.get(path.size() - 1).equals(server)) {
+            throw new IllegalStateException("No path from " + device + " to " + server);
+        }
+        return path;
+    }
+}
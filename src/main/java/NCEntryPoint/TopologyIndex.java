@@ -0,0 +1,112 @@
+import java.util.*;
+
+/**
+ * Hash based index of the network topology. Maps every directed node pair onto its {@link Edge} and keeps the
+ * incoming and outgoing edges per node, so that path resolution and turn creation do not have to scan the whole
+ * edge list.
+ */
+public class TopologyIndex {
+    private final Map<String, Map<String, Edge>> edgesByNodes = new HashMap<>();
+    private final Map<String, List<Edge>> outgoingEdges = new HashMap<>();
+    private final Map<String, List<Edge>> incomingEdges = new HashMap<>();
+
+    /**
+     * Add an edge to the index.
+     * If multiple edges connect the same node pair, the first added one is returned by {@link #findEdge(String, String)}.
+     *
+     * @param edge edge to add
+     */
+    public void addEdge(Edge edge) {
+        String node1 = edge.getNodes().get(0);
+        String node2 = edge.getNodes().get(1);
+        edgesByNodes.computeIfAbsent(node1, k -> new HashMap<>()).putIfAbsent(node2, edge);
+        outgoingEdges.computeIfAbsent(node1, k -> new ArrayList<>()).add(edge);
+        incomingEdges.computeIfAbsent(node2, k -> new ArrayList<>()).add(edge);
+    }
+
+    /**
+     * Remove every edge from the index.
+     */
+    public void clear() {
+        edgesByNodes.clear();
+        outgoingEdges.clear();
+        incomingEdges.clear();
+    }
+
+    /**
+     * Retrieve the edge from node1 to node2.
+     *
+     * @param node1 first node
+     * @param node2 second node
+     * @return matching edge, null if none is found.
+     */
+    public Edge findEdge(String node1, String node2) {
+        Map<String, Edge> targets = edgesByNodes.get(node1);
+        return targets == null ? null : targets.get(node2);
+    }
+
+    /**
+     * @param node node name
+     * @return all edges starting at the node
+     */
+    public List<Edge> getOutgoingEdges(String node) {
+        return outgoingEdges.getOrDefault(node, Collections.emptyList());
+    }
+
+    /**
+     * @param node node name
+     * @return all edges ending at the node
+     */
+    public List<Edge> getIncomingEdges(String node) {
+        return incomingEdges.getOrDefault(node, Collections.emptyList());
+    }
+
+    /**
+     * Retrieve all connected neighbors of a specific edge. Two edges are connected if the last node of one edge is
+     * the first node of the other one (e.g. R10/R20 & R20/R30). Edges concerning the same node pair
+     * (aka the same edge but maybe different direction --> R10/R20 & R20/R10) are not connected.
+     *
+     * @param currEdge edge, for which the neighbors shall be found
+     * @return list of found neighbors.
+     */
+    public List<Edge> getConnectingEdges(Edge currEdge) {
+        String first = currEdge.getNodes().get(0);
+        String last = currEdge.getNodes().get(1);
+        List<Edge> targetEdgeList = new ArrayList<>();
+        for (Edge edge : getOutgoingEdges(last)) {
+            if (!isSameNodePair(currEdge, edge)) {
+                targetEdgeList.add(edge);
+            }
+        }
+        for (Edge edge : getIncomingEdges(first)) {
+            if (!isSameNodePair(currEdge, edge)) {
+                targetEdgeList.add(edge);
+            }
+        }
+        return targetEdgeList;
+    }
+
+    /**
+     * Resolve a node path into the edges along it.
+     *
+     * @param path node names in the order of traversal
+     * @return edges along the path, one less than the number of nodes
+     * @throws IllegalArgumentException if two consecutive nodes are not connected by an edge
+     */
+    public List<Edge> resolvePath(List<String> path) {
+        List<Edge> edges = new ArrayList<>(Math.max(0, path.size() - 1));
+        for (int i = 1; i < path.size(); i++) {  // Important: We start with the second item in the list!
+            Edge edge = findEdge(path.get(i - 1), path.get(i));
+            if (edge == null) {
+                throw new IllegalArgumentException("No edge from " + path.get(i - 1) + " to " + path.get(i) + " in path " + path);
+            }
+            edges.add(edge);
+        }
+        return edges;
+    }
+
+    private static boolean isSameNodePair(Edge edge1, Edge edge2) {
+        List<String> nodes = edge1.getNodes();
+        return nodes.contains(edge2.getNodes().get(0)) && nodes.contains(edge2.getNodes().get(1));
+    }
+}
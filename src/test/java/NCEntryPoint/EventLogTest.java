@@ -0,0 +1,40 @@
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the asynchronous {@link EventLog}.
+ */
+class EventLogTest {
+    @Test
+    void flushWaitsUntilEventsArePrinted() {
+        ByteArrayOutputStream captured = new ByteArrayOutputStream();
+        // Slow console, the writer is still printing after it emptied the buffer
+        PrintStream slowOut = new PrintStream(captured, true) {
+            @Override
+            public void print(Object text) {
+                try {
+                    Thread.sleep(300);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                super.print(text);
+            }
+        };
+        PrintStream out = System.out;
+        EventLog.Level level = EventLog.getLevel();
+        try {
+            System.setOut(slowOut);
+            EventLog.setLevel(EventLog.Level.INFO);
+            EventLog.info("test", "flushed %d", 42);
+            assertTrue(EventLog.flush(5000));
+            assertTrue(captured.toString().contains("test: flushed 42"), captured.toString());
+        } finally {
+            System.setOut(out);
+            EventLog.setLevel(level);
+        }
+    }
+}
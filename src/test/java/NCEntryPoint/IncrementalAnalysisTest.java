@@ -0,0 +1,95 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests that SGSs added or removed in incremental mode ({@link NCEntryPoint#setIncrementalMode(boolean)}) yield the
+ * same delay bounds as an analysis of the network built from scratch.
+ */
+class IncrementalAnalysisTest {
+    private static final double TOLERANCE = 1E-9;
+
+    /**
+     * @param withC if SGS C is part of the network
+     * @return entry point with SGS A and B (and C) on a small network sharing the links to S1
+     */
+    private static NCEntryPoint createEntryPoint(boolean withC) {
+        NCEntryPoint entryPoint = new NCEntryPoint();
+        entryPoint.setExportCSV(false);
+        entryPoint.addEdge("F1", "H1", 1000, 0.001);
+        entryPoint.addEdge("F2", "H1", 1000, 0.001);
+        entryPoint.addEdge("H1", "S1", 1000, 0.001);
+        entryPoint.addEdge("H1", "G1", 1000, 0.001);
+        entryPoint.addEdge("G1", "S1", 1000, 0.001);
+        entryPoint.addSGService("A", "S1", 100, 10, 10, List.of(List.of("F1", "H1", "S1")), 0);
+        entryPoint.addSGService("B", "S1", 200, 10, 10, List.of(List.of("F2", "H1", "S1")), 1);
+        if (withC) {
+            addC(entryPoint);
+        }
+        return entryPoint;
+    }
+
+    private static void addC(NCEntryPoint entryPoint) {
+        entryPoint.addSGService("C", "S1", 50, 10, 10, List.of(List.of("F1", "H1", "G1", "S1")), 0);
+    }
+
+    private static AnalysisResult analyzeFromScratch(boolean withC) {
+        NCEntryPoint entryPoint = createEntryPoint(withC);
+        entryPoint.createNCNetwork();
+        return entryPoint.calculateNCDelaysResult();
+    }
+
+    private static void assertSameBounds(AnalysisResult expected, AnalysisResult actual) {
+        assertArrayEquals(expected.getServiceNames(), actual.getServiceNames());
+        assertArrayEquals(expected.getFlowDelays(), actual.getFlowDelays(), TOLERANCE);
+        assertArrayEquals(expected.getMaxDelays(), actual.getMaxDelays(), TOLERANCE);
+    }
+
+    @Test
+    void addedServiceMatchesFullAnalysis() {
+        NCEntryPoint entryPoint = createEntryPoint(false);
+        entryPoint.setIncrementalMode(true);
+        entryPoint.createNCNetwork();
+        entryPoint.calculateNCDelaysResult();
+
+        addC(entryPoint);
+        assertSameBounds(analyzeFromScratch(true), entryPoint.calculateNCDelaysResult());
+    }
+
+    @Test
+    void removedServiceMatchesFullAnalysis() {
+        NCEntryPoint entryPoint = createEntryPoint(true);
+        entryPoint.setIncrementalMode(true);
+        entryPoint.createNCNetwork();
+        entryPoint.calculateNCDelaysResult();
+
+        assertTrue(entryPoint.removeSGService("C"));
+        assertSameBounds(analyzeFromScratch(false), entryPoint.calculateNCDelaysResult());
+    }
+
+    @Test
+    void addAndRemoveRestoresBounds() {
+        NCEntryPoint entryPoint = createEntryPoint(false);
+        // The restored network would otherwise be answered from the result cache
+        entryPoint.setResultCacheLimits(0, 0);
+        entryPoint.setIncrementalMode(true);
+        entryPoint.createNCNetwork();
+        AnalysisResult initial = entryPoint.calculateNCDelaysResult();
+
+        addC(entryPoint);
+        entryPoint.calculateNCDelaysResult();
+        assertTrue(entryPoint.removeSGService("C"));
+        assertSameBounds(initial, entryPoint.calculateNCDelaysResult());
+    }
+
+    @Test
+    void serviceIsIgnoredWithoutIncrementalMode() {
+        NCEntryPoint entryPoint = createEntryPoint(false);
+        entryPoint.createNCNetwork();
+
+        addC(entryPoint);
+        assertSameBounds(analyzeFromScratch(false), entryPoint.calculateNCDelaysResult());
+    }
+}
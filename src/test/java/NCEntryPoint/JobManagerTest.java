@@ -0,0 +1,67 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the per-manager job queue of {@link JobManager} on a shared executor.
+ */
+class JobManagerTest {
+    private static final long TIMEOUT = 5000;
+
+    @Test
+    void runsJobsOfOneManagerSerially() throws Exception {
+        ExecutorService executor = JobManager.createExecutor(2);
+        JobManager manager = new JobManager(executor);
+        CountDownLatch release = new CountDownLatch(1);
+        AnalysisJob first = manager.submit("first", job -> {
+            release.await();
+            return null;
+        }, job -> {
+        });
+        AnalysisJob second = manager.submit("second", job -> "done", job -> {
+        });
+
+        // A free thread is available, the second job waits for the first one nevertheless
+        assertFalse(second.waitFor(200));
+        assertEquals("QUEUED", second.getState());
+        release.countDown();
+        assertTrue(first.waitFor(TIMEOUT));
+        assertTrue(second.waitFor(TIMEOUT));
+        assertEquals("done", second.getResult());
+        executor.shutdown();
+    }
+
+    @Test
+    void cancelledDispatchedJobDoesNotBlockQueue() throws Exception {
+        ExecutorService executor = JobManager.createExecutor(1);
+        JobManager other = new JobManager(executor);
+        JobManager manager = new JobManager(executor);
+        CountDownLatch release = new CountDownLatch(1);
+        // Occupies the only thread, the jobs of the manager are queued in the executor
+        AnalysisJob blocker = other.submit("blocker", job -> {
+            release.await();
+            return null;
+        }, job -> {
+        });
+        AnalysisJob dispatched = manager.submit("dispatched", job -> "dispatched", job -> {
+        });
+        AnalysisJob waiting = manager.submit("waiting", job -> "waiting", job -> {
+        });
+
+        assertTrue(manager.removeJob(dispatched.getId()));
+        assertEquals("CANCELLED", dispatched.getState());
+        release.countDown();
+
+        assertTrue(blocker.waitFor(TIMEOUT));
+        assertTrue(waiting.waitFor(TIMEOUT));
+        assertEquals("waiting", waiting.getResult());
+        AnalysisJob next = manager.submit("next", job -> "next", job -> {
+        });
+        assertTrue(next.waitFor(TIMEOUT));
+        assertEquals("next", next.getResult());
+        executor.shutdown();
+    }
+}
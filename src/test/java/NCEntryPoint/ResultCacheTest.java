@@ -0,0 +1,146 @@
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests of the result cache key ({@link ResultCache#computeKey(List, List, ExperimentConfig)}), the LRU eviction and
+ * the use of the cache by {@link NCEntryPoint#calculateNCDelaysResult()}.
+ */
+class ResultCacheTest {
+    private static List<Edge> createEdges() {
+        List<Edge> edges = new ArrayList<>();
+        edges.add(new Edge("F1", "H1", 1000, 0.001));
+        edges.add(new Edge("F2", "H1", 1000, 0.001));
+        edges.add(new Edge("H1", "S1", 1000, 0.001));
+        return edges;
+    }
+
+    private static List<SGService> createServices() {
+        List<SGService> services = new ArrayList<>();
+        services.add(new SGService("A", "S1", 100, 10, 10, List.of(List.of("F1", "H1", "S1")), FlowPriority.values()[0]));
+        services.add(new SGService("B", "S1", 200, 10, 10, List.of(List.of("F2", "H1", "S1")), FlowPriority.values()[1]));
+        return services;
+    }
+
+    private static String key(ExperimentConfig config) {
+        return ResultCache.computeKey(createEdges(), createServices(), config);
+    }
+
+    @Test
+    void keyIgnoresEdgeOrder() {
+        List<Edge> reversed = createEdges();
+        Collections.reverse(reversed);
+        assertEquals(key(new ExperimentConfig()), ResultCache.computeKey(reversed, createServices(), new ExperimentConfig()));
+    }
+
+    @Test
+    void keyDependsOnServiceOrder() {
+        List<SGService> reversed = createServices();
+        Collections.reverse(reversed);
+        assertNotEquals(key(new ExperimentConfig()), ResultCache.computeKey(createEdges(), reversed, new ExperimentConfig()));
+    }
+
+    @Test
+    void keyDependsOnNetwork() {
+        String key = key(new ExperimentConfig());
+
+        List<Edge> edges = createEdges();
+        edges.set(2, new Edge("H1", "S1", 100, 0.001));
+        assertNotEquals(key, ResultCache.computeKey(edges, createServices(), new ExperimentConfig()), "bitrate");
+
+        List<SGService> services = createServices();
+        services.set(1, new SGService("B", "S1", 200, 10, 10, List.of(List.of("F2", "H1", "S1"), List.of("F1", "H1", "S1")), FlowPriority.values()[1]));
+        assertNotEquals(key, ResultCache.computeKey(createEdges(), services, new ExperimentConfig()), "multipath");
+
+        services = createServices();
+        services.set(0, new SGService("A", "S1", 100, 10, 5, List.of(List.of("F1", "H1", "S1")), FlowPriority.values()[0]));
+        assertNotEquals(key, ResultCache.computeKey(createEdges(), services, new ExperimentConfig()), "deadline");
+    }
+
+    @Test
+    void keyDependsOnGraphConstruction() {
+        String key = key(new ExperimentConfig());
+
+        ExperimentConfig config = new ExperimentConfig();
+        config.turnGeneration = ExperimentConfig.TurnGeneration.FLOW_PATHS;
+        assertNotEquals(key, key(config), "turnGeneration");
+
+        config = new ExperimentConfig();
+        config.aggregateFlows = !config.aggregateFlows;
+        assertNotEquals(key, key(config), "aggregateFlows");
+
+        config = new ExperimentConfig();
+        config.feasibilityOnly = !config.feasibilityOnly;
+        assertNotEquals(key, key(config), "feasibilityOnly");
+
+        config = new ExperimentConfig();
+        config.propagationDelay *= 2;
+        assertNotEquals(key, key(config), "propagationDelay");
+
+        config = new ExperimentConfig();
+        config.schedulingPolicy = ExperimentConfig.SchedulingPolicy.SP;
+        assertNotEquals(key, key(config), "schedulingPolicy");
+    }
+
+    @Test
+    void keyIgnoresOutputSettings() {
+        ExperimentConfig config = new ExperimentConfig();
+        config.exportCSV = !config.exportCSV;
+        assertEquals(key(new ExperimentConfig()), key(config));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsedResult() {
+        ResultCache cache = new ResultCache(2, Long.MAX_VALUE);
+        AnalysisResult result = new AnalysisResult(new ExperimentConfig(), createServices(), Map.of(), false);
+        cache.put("a", result);
+        cache.put("b", result);
+        assertSame(result, cache.get("a"));
+        cache.put("c", result);
+
+        assertNull(cache.get("b"));
+        assertSame(result, cache.get("a"));
+        assertSame(result, cache.get("c"));
+        assertEquals(1L, (long) cache.getStatistics().get("evictions"));
+    }
+
+    @Test
+    void environmentDependentFailuresAreNotComplete() {
+        List<SGService> services = createServices();
+        Map<String, List<Double>> delays = Map.of("A", List.of(-1.0), "B", List.of(20.0));
+        for (FlowFailure failure : FlowFailure.values()) {
+            List<FlowFailure> failures = new ArrayList<>();
+            failures.add(failure);
+            AnalysisResult result = new AnalysisResult(new ExperimentConfig(), services, delays, Map.of("A", failures), false);
+            boolean reproducible = failure == FlowFailure.ANALYSIS_ERROR || failure == FlowFailure.CYCLIC_DEPENDENCY;
+            assertEquals(reproducible, result.isComplete(), failure.name());
+        }
+    }
+
+    @Test
+    void cachesResultOfBuiltNetwork() {
+        NCEntryPoint entryPoint = new NCEntryPoint();
+        entryPoint.setExportCSV(false);
+        for (Edge edge : createEdges()) {
+            entryPoint.addEdge(edge.getNodes().get(0), edge.getNodes().get(1), edge.getBitrate(), edge.getLatency());
+        }
+        entryPoint.addSGService("A", "S1", 100, 10, 10, List.of(List.of("F1", "H1", "S1")), 0);
+        entryPoint.createNCNetwork();
+        AnalysisResult built = entryPoint.calculateNCDelaysResult();
+
+        // Without incremental mode, the SGS is not part of the network until the next createNCNetwork()
+        entryPoint.addSGService("B", "S1", 200, 10, 10, List.of(List.of("F2", "H1", "S1")), 1);
+        assertSame(built, entryPoint.calculateNCDelaysResult());
+        assertEquals(1L, (long) entryPoint.getResultCacheStatistics().get("hits"));
+
+        entryPoint.createNCNetwork();
+        AnalysisResult rebuilt = entryPoint.calculateNCDelaysResult();
+        assertArrayEquals(new String[]{"A", "B"}, rebuilt.getServiceNames());
+        assertEquals(1L, (long) entryPoint.getResultCacheStatistics().get("hits"));
+    }
+}